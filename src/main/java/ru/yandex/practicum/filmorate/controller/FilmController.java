@@ -1,14 +1,30 @@
 package ru.yandex.practicum.filmorate.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.yandex.practicum.filmorate.model.Completion;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmBatchResult;
+import ru.yandex.practicum.filmorate.model.FilmPage;
 import ru.yandex.practicum.filmorate.service.FilmService;
 import ru.yandex.practicum.filmorate.throwable.NotFoundException;
 
 import javax.validation.Valid;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @RestController
@@ -16,11 +32,25 @@ import java.util.List;
 @RequiredArgsConstructor
 public class FilmController {
     private final FilmService filmService;
+    private final JsonStreamWriter jsonStreamWriter;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
     public List<Film> getAllFilms() {
-        log.debug("Количество фильмов - {}", filmService.getFilms().size());
-        return filmService.getFilms();
+        List<Film> films = filmService.getFilms();
+        log.debug("Количество фильмов - {}", films.size());
+        return films;
+    }
+
+    @GetMapping(params = {"stream=true", "!limit"})
+    public ResponseEntity<StreamingResponseBody> streamAllFilms() {
+        return jsonStreamWriter.writeArray(filmService::streamFilms);
+    }
+
+    @GetMapping(params = "limit")
+    public FilmPage getFilmsPage(@RequestParam(value = "after", required = false) Integer after,
+                                 @RequestParam(value = "limit") int limit) {
+        return filmService.getFilmsPage(after, limit);
     }
 
     @PostMapping
@@ -28,6 +58,33 @@ public class FilmController {
         return filmService.createFilm(film);
     }
 
+    @PostMapping("/batch")
+    public List<FilmBatchResult> createFilms(@RequestBody List<Film> films) {
+        return filmService.createFilms(films);
+    }
+
+    @PostMapping(value = "/batch", consumes = "application/x-ndjson")
+    public List<FilmBatchResult> createFilmsFromNdjson(InputStream body) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(Film.class);
+        List<Film> films = new ArrayList<>();
+        Map<Integer, String> parseErrors = new HashMap<>();
+        BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                films.add(reader.readValue(line));
+            } catch (JsonProcessingException e) {
+                log.debug("Не удалось разобрать строку {}: {}", films.size(), e.getOriginalMessage());
+                parseErrors.put(films.size(), "Некорректный JSON в строке.");
+                films.add(null);
+            }
+        }
+        return filmService.createFilms(films, parseErrors);
+    }
+
     @PutMapping
     public Film updateFilm(@Valid @RequestBody Film film) {
         return filmService.updateFilm(film);
@@ -48,11 +105,34 @@ public class FilmController {
 
     @GetMapping("/search")
     public List<Film> getFilmsBySearch(@RequestParam(value = "query", required = false) String query,
-                                       @RequestParam(value = "by", required = false) String by) {
+                                       @RequestParam(value = "by", required = false) String by,
+                                       @RequestParam(value = "fuzzy", defaultValue = "false") boolean fuzzy,
+                                       @RequestParam(value = "prefix", defaultValue = "false") boolean prefix) {
+        if (fuzzy) {
+            return filmService.getFilmByFuzzySearch(query, by);
+        }
+        if (prefix) {
+            return filmService.getFilmByPrefixSearch(query, by);
+        }
         return filmService.getFilmBySearch(query, by);
 
     }
 
+    @GetMapping("/autocomplete")
+    public List<Completion> getCompletions(@RequestParam(value = "prefix") String prefix,
+                                           @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return filmService.autocomplete(prefix, limit);
+    }
+
+    @GetMapping(value = "/search", params = "limit")
+    public FilmPage getFilmsBySearchPage(@RequestParam(value = "query", required = false) String query,
+                                         @RequestParam(value = "by", required = false) String by,
+                                         @RequestParam(value = "fuzzy", defaultValue = "false") boolean fuzzy,
+                                         @RequestParam(value = "cursor", required = false) Integer cursor,
+                                         @RequestParam(value = "limit") int limit) {
+        return filmService.getFilmBySearchPage(query, by, fuzzy, cursor, limit);
+    }
+
     @PutMapping("/{id}/like/{userId}")
     public void addLike(@PathVariable("id") int id, @PathVariable("userId") int userId) {
         filmService.addLike(id, userId);
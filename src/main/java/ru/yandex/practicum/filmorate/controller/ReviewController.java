@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
 import ru.yandex.practicum.filmorate.model.Review;
+import ru.yandex.practicum.filmorate.model.ReviewPage;
 import ru.yandex.practicum.filmorate.service.ReviewService;
 
 import javax.validation.Valid;
@@ -31,6 +32,14 @@ public class ReviewController {
         reviewService.removeReview(reviewId);
     }
 
+    @GetMapping("/search")
+    public ReviewPage searchReviews(@RequestParam(value = "q") String query,
+                                    @RequestParam(value = "filmId", required = false) Integer filmId,
+                                    @RequestParam(value = "cursor", required = false) Integer cursor,
+                                    @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return reviewService.searchReviews(query, filmId, cursor, limit);
+    }
+
     @GetMapping("/{reviewId}")
     public Review getReviewById(@PathVariable Integer reviewId) {
         return reviewService.getReviewById(reviewId);
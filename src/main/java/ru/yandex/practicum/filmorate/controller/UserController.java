@@ -2,7 +2,9 @@ package ru.yandex.practicum.filmorate.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.yandex.practicum.filmorate.model.Feed;
 import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.User;
@@ -17,6 +19,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserController {
     private final UserService userService;
+    private final JsonStreamWriter jsonStreamWriter;
 
     @GetMapping
     public List<User> users() {
@@ -24,6 +27,11 @@ public class UserController {
         return userService.getUsers();
     }
 
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        return jsonStreamWriter.writeArray(userService::streamUsers);
+    }
+
     @PostMapping
     public User create(@Valid @RequestBody User user) {
         return userService.createUser(user);
@@ -0,0 +1,19 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class Completion {
+    public static final String FILM = "film";
+    public static final String DIRECTOR = "director";
+
+    String type;
+    int id;
+    String name;
+    long weight;
+}
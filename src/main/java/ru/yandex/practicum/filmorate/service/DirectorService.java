@@ -44,7 +44,7 @@ public class DirectorService {
     public void deleteDirector(int id) {
         if (id < 0) {
             throw new IncorrectCountException("id не должно быть меньше 0.");
-        } else if (directorStorage.getById(id).isEmpty()) {
+        } else if (!directorStorage.exists(id)) {
             throw new NotFoundException(String.format("Режиссёр с id %d - не существует.", id));
         }
         directorStorage.remove(id);
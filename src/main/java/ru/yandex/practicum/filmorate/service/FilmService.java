@@ -1,26 +1,51 @@
 package ru.yandex.practicum.filmorate.service;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.model.Completion;
+import ru.yandex.practicum.filmorate.model.Director;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmBatchResult;
+import ru.yandex.practicum.filmorate.model.FilmPage;
+import ru.yandex.practicum.filmorate.service.recommendation.RecommendationCache;
+import ru.yandex.practicum.filmorate.service.recommendation.Recommender;
+import ru.yandex.practicum.filmorate.storage.ReferenceDataRegistry;
 import ru.yandex.practicum.filmorate.storage.director.DirectorStorage;
 import ru.yandex.practicum.filmorate.storage.feed.FeedStorage;
 import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.PopularFilmIndex;
+import ru.yandex.practicum.filmorate.storage.search.FilmSearchHit;
+import ru.yandex.practicum.filmorate.storage.search.FilmSearchIndex;
 import ru.yandex.practicum.filmorate.storage.user.UserStorage;
 import ru.yandex.practicum.filmorate.throwable.IncorrectCountException;
 import ru.yandex.practicum.filmorate.throwable.NotFoundException;
 import ru.yandex.practicum.filmorate.throwable.ValidationException;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
 import java.time.LocalDate;
 import java.time.Month;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class FilmService {
     private static final LocalDate AFTER_RELEASE_DATE = LocalDate.of(1895, Month.DECEMBER, 28);
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int BATCH_CHUNK_SIZE = 500;
+    private static final double LIKES_WEIGHT = 0.5;
     @Qualifier("filmDbStorage")
     private final FilmStorage filmStorage;
     @Qualifier("userDbStorage")
@@ -28,15 +53,50 @@ public class FilmService {
     private final DirectorStorage directorStorage;
     @Qualifier("feedDbStorage")
     private final FeedStorage feedStorage;
+    private final PopularFilmIndex popularFilmIndex;
+    private final ReferenceDataRegistry referenceData;
+    private final FilmSearchIndex filmSearchIndex;
+    private final Recommender recommender;
+    private final RecommendationCache recommendationCache;
+    private final Validator validator;
 
     public Film createFilm(Film film) {
         validateFilm(film);
-        return filmStorage.add(film);
+        Film created = filmStorage.add(film);
+        popularFilmIndex.putFilm(created);
+        return created;
+    }
+
+    public List<FilmBatchResult> createFilms(List<Film> films) {
+        return createFilms(films, Map.of());
+    }
+
+    public List<FilmBatchResult> createFilms(List<Film> films, Map<Integer, String> parseErrors) {
+        List<FilmBatchResult> results = new ArrayList<>(films.size());
+        List<Film> chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+        List<FilmBatchResult> chunkResults = new ArrayList<>(BATCH_CHUNK_SIZE);
+        for (int i = 0; i < films.size(); i++) {
+            Film film = films.get(i);
+            String error = parseErrors.containsKey(i) ? parseErrors.get(i) : validateBatchFilm(film);
+            FilmBatchResult result = new FilmBatchResult(i, null, error);
+            results.add(result);
+            if (error == null) {
+                chunk.add(film);
+                chunkResults.add(result);
+            }
+            if (chunk.size() == BATCH_CHUNK_SIZE || (i == films.size() - 1 && !chunk.isEmpty())) {
+                addChunk(chunk, chunkResults);
+                chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+                chunkResults = new ArrayList<>(BATCH_CHUNK_SIZE);
+            }
+        }
+        return results;
     }
 
     public Film updateFilm(Film film) {
         validateFilm(film);
         Optional<Film> filmOptional = filmStorage.update(film);
+        filmOptional.ifPresent(popularFilmIndex::putFilm);
         return filmOptional.orElseThrow(() -> new NotFoundException(String.format("Фильма с id %d - нет в списке зарегистрированных.", film.getId())));
     }
 
@@ -44,6 +104,23 @@ public class FilmService {
         return filmStorage.getAll();
     }
 
+    public void streamFilms(Consumer<Film> consumer) {
+        filmStorage.streamAll(consumer);
+    }
+
+    public FilmPage getFilmsPage(Integer after, int limit) {
+        if (limit <= 0) {
+            throw new IncorrectCountException("limit не должен быть меньше 1.");
+        }
+        int pageSize = Math.min(limit, MAX_PAGE_SIZE);
+        List<Film> films = filmStorage.getPage(after, pageSize + 1);
+        if (films.size() <= pageSize) {
+            return new FilmPage(films, null);
+        }
+        List<Film> page = new ArrayList<>(films.subList(0, pageSize));
+        return new FilmPage(page, page.get(pageSize - 1).getId());
+    }
+
     public Film getFilm(int id) {
         Optional<Film> filmOpt = filmStorage.getById(id);
         if (filmOpt.isPresent()) {
@@ -60,24 +137,34 @@ public class FilmService {
     public void removeFilm(int id) {
         validateIdFilm(id);
         filmStorage.remove(id);
+        popularFilmIndex.removeFilm(id);
+        recommender.markStale();
     }
 
     public void addLike(Integer filmId, Integer userId) {
         validateIdFilm(filmId);
         validateIdUser(userId);
-        filmStorage.addLike(filmId, userId);
+        if (filmStorage.addLike(filmId, userId)) {
+            popularFilmIndex.changeLikes(filmId, 1);
+            recommender.like(userId, filmId);
+            recommendationCache.invalidate(userId);
+        }
         feedStorage.createFeed(userId, "LIKE", "ADD", filmId);
     }
 
     public void removeLike(Integer filmId, Integer userId) {
         validateIdFilm(filmId);
         validateIdUser(userId);
-        filmStorage.removeLike(filmId, userId);
+        if (filmStorage.removeLike(filmId, userId)) {
+            popularFilmIndex.changeLikes(filmId, -1);
+            recommender.unlike(userId, filmId);
+            recommendationCache.invalidate(userId);
+        }
         feedStorage.createFeed(userId, "LIKE", "REMOVE", filmId);
     }
 
     public List<Film> getPopularFilmsOnGenreAndYear(Integer count, Integer genreId, Integer year) {
-        return filmStorage.getPopularFilmsOnGenreAndYear(count, genreId, year);
+        return filmStorage.getByIds(popularFilmIndex.getTop(count, genreId, year));
     }
 
     public List<Film> getCommonFilms(Integer id, Integer otherId) {
@@ -95,24 +182,72 @@ public class FilmService {
     }
 
     public List<Film> getFilmBySearch(String query, String by) {
-        String querys = query.toLowerCase();
-        List<Film> searchfilms;
         switch (by) {
             case ("director"):
-                searchfilms = filmStorage.searchFilmByDirectorName(querys);
-                return searchfilms;
             case ("title"):
-                searchfilms = filmStorage.searchFilmByTitle(querys);
-                return searchfilms;
             case ("director,title"):
             case ("title,director"):
-                searchfilms = filmStorage.searchFilmByDirectorNameAndTitleFilm(querys);
-                return searchfilms;
+                return filmStorage.getByIds(rankSearchHits(findSearchHits(query, by, false)));
             default:
                 return filmStorage.getAll();
         }
     }
 
+    public List<Film> getFilmByPrefixSearch(String query, String by) {
+        boolean byDirector = by != null && by.contains("director");
+        boolean byTitle = by == null || by.contains("title") || !byDirector;
+        if (byTitle && byDirector) {
+            return filmStorage.searchFilmByDirectorNameAndTitleFilm(query);
+        }
+        return byDirector ? filmStorage.searchFilmByDirectorName(query) : filmStorage.searchFilmByTitle(query);
+    }
+
+    public List<Film> getFilmByFuzzySearch(String query, String by) {
+        return filmStorage.getByIds(rankSearchHits(findSearchHits(query, by, true)));
+    }
+
+    public FilmPage getFilmBySearchPage(String query, String by, boolean fuzzy, Integer cursor, int limit) {
+        if (limit <= 0) {
+            throw new IncorrectCountException("limit не должен быть меньше 1.");
+        }
+        int offset = cursor == null ? 0 : cursor;
+        if (offset < 0) {
+            throw new IncorrectCountException("cursor не должен быть меньше 0.");
+        }
+        List<Integer> ranked = rankSearchHits(findSearchHits(query, by, fuzzy));
+        if (offset >= ranked.size()) {
+            return new FilmPage(List.of(), null);
+        }
+        int end = offset + Math.min(limit, Math.min(MAX_PAGE_SIZE, ranked.size() - offset));
+        List<Film> films = filmStorage.getByIds(ranked.subList(offset, end));
+        return new FilmPage(films, end < ranked.size() ? end : null);
+    }
+
+    public List<Completion> autocomplete(String prefix, int limit) {
+        if (limit <= 0) {
+            throw new IncorrectCountException("limit не должен быть меньше 1.");
+        }
+        return filmSearchIndex.complete(prefix, limit, popularFilmIndex::getLikes);
+    }
+
+    private List<FilmSearchHit> findSearchHits(String query, String by, boolean fuzzy) {
+        boolean byDirector = by != null && by.contains("director");
+        boolean byTitle = by == null || by.contains("title") || !byDirector;
+        return fuzzy
+                ? filmSearchIndex.fuzzySearch(query, byTitle, byDirector)
+                : filmSearchIndex.search(query, byTitle, byDirector);
+    }
+
+    private List<Integer> rankSearchHits(List<FilmSearchHit> hits) {
+        Map<Integer, Double> scores = new HashMap<>();
+        hits.forEach(hit -> scores.put(hit.getFilmId(), hit.getRelevance()
+                + LIKES_WEIGHT * Math.log1p(popularFilmIndex.getLikes(hit.getFilmId()))));
+        return scores.keySet().stream()
+                .sorted(Comparator.comparing((Integer id) -> scores.get(id), Comparator.reverseOrder())
+                        .thenComparing(Comparator.naturalOrder()))
+                .collect(Collectors.toList());
+    }
+
     private void validateFilm(Film film) {
         if (film.getReleaseDate().isBefore(AFTER_RELEASE_DATE)) {
             throw new ValidationException("Фильм должен быть не раньше " + AFTER_RELEASE_DATE.getDayOfMonth()
@@ -120,10 +255,55 @@ public class FilmService {
         }
     }
 
+    private void addChunk(List<Film> chunk, List<FilmBatchResult> chunkResults) {
+        try {
+            filmStorage.addAll(chunk);
+        } catch (DataAccessException e) {
+            log.warn("Не удалось сохранить пакет из {} фильмов", chunk.size(), e);
+            chunkResults.forEach(result -> result.setError("Не удалось сохранить фильм."));
+            return;
+        }
+        for (int i = 0; i < chunk.size(); i++) {
+            chunkResults.get(i).setId(chunk.get(i).getId());
+            popularFilmIndex.putFilm(chunk.get(i));
+        }
+    }
+
+    private String validateBatchFilm(Film film) {
+        if (film == null) {
+            return "Фильм не должен быть пустым.";
+        }
+        Set<ConstraintViolation<Film>> violations = validator.validate(film);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(" "));
+        }
+        try {
+            validateFilm(film);
+        } catch (ValidationException e) {
+            return e.getMessage();
+        }
+        if (film.getMpa().getId() == null || referenceData.findMpa(film.getMpa().getId()).isEmpty()) {
+            return "Рейтинга с таким id не существует.";
+        }
+        if (film.getGenres() != null && film.getGenres().stream()
+                .anyMatch(genre -> genre.getId() == null || referenceData.findGenre(genre.getId()).isEmpty())) {
+            return "Жанра с таким id не существует.";
+        }
+        if (film.getDirectors() != null && !directorStorage.existsAll(film.getDirectors().stream()
+                .map(Director::getId)
+                .collect(Collectors.toList()))) {
+            return "Режиссёра с таким id не существует.";
+        }
+        return null;
+    }
+
     private void validateIdFilm(Integer id) {
         if (id < 0) {
             throw new IncorrectCountException("id не должно быть меньше 0.");
-        } else if (filmStorage.getById(id).isEmpty()) {
+        } else if (!filmStorage.exists(id)) {
             throw new NotFoundException(String.format("Фильм с id %d - не существует.", id));
         }
     }
@@ -131,7 +311,7 @@ public class FilmService {
     private void validateIdUser(Integer id) {
         if (id < 0) {
             throw new IncorrectCountException("id не должно быть меньше 0.");
-        } else if (userStorage.getById(id).isEmpty()) {
+        } else if (!userStorage.exists(id)) {
             throw new NotFoundException(String.format("Пользователь с id %d - не существует.", id));
         }
     }
@@ -139,7 +319,7 @@ public class FilmService {
     private void validateIdDirector(Integer id) {
         if (id < 0) {
             throw new IncorrectCountException("id не должно быть меньше 0.");
-        } else if (directorStorage.getById(id).isEmpty()) {
+        } else if (!directorStorage.exists(id)) {
             throw new NotFoundException(String.format("Режиссёр с id %d - не существует.", id));
         }
     }
@@ -3,9 +3,10 @@ package ru.yandex.practicum.filmorate.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import ru.yandex.practicum.filmorate.model.Review;
-import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.ReviewPage;
 import ru.yandex.practicum.filmorate.storage.feed.FeedStorage;
 import ru.yandex.practicum.filmorate.storage.review.ReviewStorage;
+import ru.yandex.practicum.filmorate.storage.search.ReviewSearchIndex;
 import ru.yandex.practicum.filmorate.storage.user.UserStorage;
 import ru.yandex.practicum.filmorate.throwable.IncorrectCountException;
 import ru.yandex.practicum.filmorate.throwable.NotFoundException;
@@ -16,9 +17,11 @@ import java.util.Optional;
 @Service
 @RequiredArgsConstructor
 public class ReviewService {
+    private static final int MAX_PAGE_SIZE = 1000;
     private final ReviewStorage reviewStorage;
     private final UserStorage userStorage;
     private final FeedStorage feedStorage;
+    private final ReviewSearchIndex reviewSearchIndex;
 
     public Review addReview(Review review) {
         reviewStorage.addReview(review);
@@ -54,6 +57,23 @@ public class ReviewService {
         return reviewStorage.getReviewsForFilm(filmId, count);
     }
 
+    public ReviewPage searchReviews(String query, Integer filmId, Integer cursor, int limit) {
+        if (limit <= 0) {
+            throw new IncorrectCountException("limit не должен быть меньше 1.");
+        }
+        int offset = cursor == null ? 0 : cursor;
+        if (offset < 0) {
+            throw new IncorrectCountException("cursor не должен быть меньше 0.");
+        }
+        List<Integer> ranked = reviewSearchIndex.search(query, filmId);
+        if (offset >= ranked.size()) {
+            return new ReviewPage(List.of(), null);
+        }
+        int end = offset + Math.min(limit, Math.min(MAX_PAGE_SIZE, ranked.size() - offset));
+        List<Review> reviews = reviewStorage.getReviewsByIds(ranked.subList(offset, end));
+        return new ReviewPage(reviews, end < ranked.size() ? end : null);
+    }
+
     public void likeReview(Integer reviewId, Integer userId) {
         validateReviewAndUser(reviewId, userId);
         reviewStorage.likeReview(reviewId, userId);
@@ -75,15 +95,13 @@ public class ReviewService {
     }
 
     private void validateReviewAndUser(Integer reviewId, Integer userId) {
-        Optional<Review> reviewOpt = reviewStorage.getReviewById(reviewId);
-        Optional<User> userOpt = userStorage.getById(userId);
         if (reviewId < 0) {
             throw new IncorrectCountException("id ревью не должно быть меньше 0.");
         } else if (userId < 0) {
             throw new IncorrectCountException("id пользователя не должно быть меньше 0.");
-        } else if (reviewOpt.isEmpty()) {
+        } else if (!reviewStorage.exists(reviewId)) {
             throw new NotFoundException(String.format("Отзыва с id %d - не существует", reviewId));
-        } else if (userOpt.isEmpty()) {
+        } else if (!userStorage.exists(userId)) {
             throw new NotFoundException(String.format("Пользователя с таким id %d - не существует.", userId));
         }
     }
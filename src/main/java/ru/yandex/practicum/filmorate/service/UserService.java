@@ -6,13 +6,17 @@ import org.springframework.stereotype.Service;
 import ru.yandex.practicum.filmorate.model.Feed;
 import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.recommendation.RecommendationCache;
+import ru.yandex.practicum.filmorate.service.recommendation.Recommender;
 import ru.yandex.practicum.filmorate.storage.feed.FeedStorage;
 import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.PopularFilmIndex;
 import ru.yandex.practicum.filmorate.storage.user.UserStorage;
 import ru.yandex.practicum.filmorate.throwable.IncorrectCountException;
 import ru.yandex.practicum.filmorate.throwable.NotFoundException;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -26,6 +30,11 @@ public class UserService {
     @Qualifier("feedDbStorage")
     private final FeedStorage feedStorage;
 
+    private final PopularFilmIndex popularFilmIndex;
+
+    private final Recommender recommender;
+    private final RecommendationCache recommendationCache;
+
     public User createUser(User user) {
         if (user.getName() == null || user.getName().isBlank()) {
             user.setName(user.getLogin());
@@ -45,6 +54,10 @@ public class UserService {
         return userStorage.getAll();
     }
 
+    public void streamUsers(Consumer<User> consumer) {
+        userStorage.streamAll(consumer);
+    }
+
     public User getUser(int id) {
         Optional<User> userOpt = userStorage.getById(id);
         if (userOpt.isPresent()) {
@@ -60,7 +73,11 @@ public class UserService {
 
     public void removeUser(int id) {
         validate(id);
+        List<Integer> likedFilmIds = filmsStorage.getLikedFilmIds(id);
         userStorage.remove(id);
+        likedFilmIds.forEach(filmId -> popularFilmIndex.changeLikes(filmId, -1));
+        recommender.markStale();
+        recommendationCache.evict(id);
     }
 
     public void addFriend(Integer userId, Integer friendId) {
@@ -89,20 +106,8 @@ public class UserService {
     }
 
     public List<Film> getRecommendations(int userId) {
-        User user = getUser(userId);
-        List<Film> films = filmsStorage.getAll();
-        List<Film> userFilms = filmsStorage.getLikes(userId, films);
-        List<User> users = userStorage.getAll();
-        Map<User, HashMap<Film, Double>> inputData = filmsStorage.getRecommendationData(users, films);
-        inputData = SlopeOne.slopeOne(inputData, films);
-        HashMap<Film, Double> userRatings = inputData.get(user);
-        films = new ArrayList<>();
-        if (userRatings == null) return films;
-        for (Film film : userRatings.keySet()) {
-            if ((userRatings.get(film) > 0) && (!userFilms.contains(film)))
-                films.add(film);
-        }
-        return films;
+        validate(userId);
+        return filmsStorage.getByIds(recommendationCache.get(userId));
     }
 
     public List<Feed> getUserFeed(Integer id) {
@@ -113,7 +118,7 @@ public class UserService {
     private void validate(Integer id) {
         if (id < 0) {
             throw new IncorrectCountException("id не должно быть меньше 0.");
-        } else if (userStorage.getById(id).isEmpty()) {
+        } else if (!userStorage.exists(id)) {
             throw new NotFoundException(String.format("Пользователь с id %d - не существует.", id));
         }
     }
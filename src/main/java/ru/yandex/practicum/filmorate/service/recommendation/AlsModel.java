@@ -0,0 +1,208 @@
+package ru.yandex.practicum.filmorate.service.recommendation;
+
+import ru.yandex.practicum.filmorate.storage.film.LikeMatrix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public final class AlsModel {
+    public static final AlsModel EMPTY = new AlsModel(LikeMatrix.EMPTY, 1, 0, new float[0], new float[0]);
+    private static final int BLOCK_SIZE = 512;
+
+    private final LikeMatrix likes;
+    private final int factors;
+    private final float regularization;
+    private final float[] userFactors;
+    private final float[] filmFactors;
+    private final double[] filmGram;
+
+    public AlsModel(LikeMatrix likes, int factors, float regularization, float[] userFactors, float[] filmFactors) {
+        if (userFactors.length != likes.getUserIds().length * factors
+                || filmFactors.length != likes.getFilmIds().length * factors) {
+            throw new IllegalArgumentException("Размеры векторов не соответствуют числу пользователей и фильмов.");
+        }
+        this.likes = likes;
+        this.factors = factors;
+        this.regularization = regularization;
+        this.userFactors = userFactors;
+        this.filmFactors = filmFactors;
+        this.filmGram = AlsTrainer.gram(filmFactors, likes.getFilmIds().length, factors);
+    }
+
+    public int getFactors() {
+        return factors;
+    }
+
+    public int getFilmCount() {
+        return likes.getFilmIds().length;
+    }
+
+    public int getUserCount() {
+        return likes.getUserIds().length;
+    }
+
+    public UserVector getUserVector(int userId) {
+        int u = Arrays.binarySearch(likes.getUserIds(), userId);
+        if (u < 0) {
+            return null;
+        }
+        int[] userOffsets = likes.getUserOffsets();
+        return new UserVector(Arrays.copyOfRange(userFactors, u * factors, (u + 1) * factors),
+                Arrays.copyOfRange(likes.getFilmIndexes(), userOffsets[u], userOffsets[u + 1]));
+    }
+
+    public List<Integer> getLikedFilmIds(int userId) {
+        int u = Arrays.binarySearch(likes.getUserIds(), userId);
+        if (u < 0) {
+            return List.of();
+        }
+        int[] userOffsets = likes.getUserOffsets();
+        List<Integer> liked = new ArrayList<>(userOffsets[u + 1] - userOffsets[u]);
+        for (int i = userOffsets[u]; i < userOffsets[u + 1]; i++) {
+            liked.add(likes.getFilmIds()[likes.getFilmIndexes()[i]]);
+        }
+        return liked;
+    }
+
+    public UserVector foldIn(List<Integer> likedFilmIds, float alpha) {
+        int[] liked = likedFilmIds.stream()
+                .mapToInt(filmId -> Arrays.binarySearch(likes.getFilmIds(), filmId))
+                .filter(index -> index >= 0)
+                .sorted()
+                .distinct()
+                .toArray();
+        float[] vector = new float[factors];
+        AlsTrainer.solve(filmFactors, factors, filmGram, liked, 0, liked.length, alpha, regularization,
+                new double[factors * factors], new double[factors], vector, 0);
+        return new UserVector(vector, liked);
+    }
+
+    public List<Integer> recommend(UserVector user, int limit) {
+        int filmCount = getFilmCount();
+        int k = Math.min(limit, filmCount - user.liked.length);
+        if (k <= 0) {
+            return List.of();
+        }
+        float[] heapScores = new float[k];
+        int[] heapItems = new int[k];
+        int heapSize = 0;
+        float[] scores = new float[BLOCK_SIZE];
+        int next = 0;
+        for (int from = 0; from < filmCount; from += BLOCK_SIZE) {
+            int to = Math.min(filmCount, from + BLOCK_SIZE);
+            score(user.factors, from, to, scores);
+            for (int i = from; i < to; i++) {
+                if (next < user.liked.length && user.liked[next] == i) {
+                    next++;
+                    continue;
+                }
+                float score = scores[i - from];
+                if (heapSize < k) {
+                    heapScores[heapSize] = score;
+                    heapItems[heapSize] = i;
+                    siftUp(heapScores, heapItems, heapSize++);
+                } else if (better(score, i, heapScores[0], heapItems[0])) {
+                    heapScores[0] = score;
+                    heapItems[0] = i;
+                    siftDown(heapScores, heapItems, heapSize);
+                }
+            }
+        }
+        List<Integer> recommended = new ArrayList<>(heapSize);
+        while (heapSize > 0) {
+            recommended.add(likes.getFilmIds()[heapItems[0]]);
+            heapSize--;
+            heapScores[0] = heapScores[heapSize];
+            heapItems[0] = heapItems[heapSize];
+            siftDown(heapScores, heapItems, heapSize);
+        }
+        Collections.reverse(recommended);
+        return recommended;
+    }
+
+    void score(float[] user, int from, int to, float[] scores) {
+        int i = from;
+        for (; i + 3 < to; i += 4) {
+            int base = i * factors;
+            float s0 = 0;
+            float s1 = 0;
+            float s2 = 0;
+            float s3 = 0;
+            for (int f = 0; f < factors; f++) {
+                float x = user[f];
+                s0 += x * filmFactors[base + f];
+                s1 += x * filmFactors[base + factors + f];
+                s2 += x * filmFactors[base + 2 * factors + f];
+                s3 += x * filmFactors[base + 3 * factors + f];
+            }
+            scores[i - from] = s0;
+            scores[i - from + 1] = s1;
+            scores[i - from + 2] = s2;
+            scores[i - from + 3] = s3;
+        }
+        for (; i < to; i++) {
+            int base = i * factors;
+            float s = 0;
+            for (int f = 0; f < factors; f++) {
+                s += user[f] * filmFactors[base + f];
+            }
+            scores[i - from] = s;
+        }
+    }
+
+    private static boolean better(float score, int item, float otherScore, int otherItem) {
+        return score > otherScore || score == otherScore && item < otherItem;
+    }
+
+    private static void siftUp(float[] scores, int[] items, int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (!better(scores[parent], items[parent], scores[position], items[position])) {
+                return;
+            }
+            swap(scores, items, parent, position);
+            position = parent;
+        }
+    }
+
+    private static void siftDown(float[] scores, int[] items, int size) {
+        int position = 0;
+        while (true) {
+            int left = 2 * position + 1;
+            int right = left + 1;
+            int worst = position;
+            if (left < size && better(scores[worst], items[worst], scores[left], items[left])) {
+                worst = left;
+            }
+            if (right < size && better(scores[worst], items[worst], scores[right], items[right])) {
+                worst = right;
+            }
+            if (worst == position) {
+                return;
+            }
+            swap(scores, items, position, worst);
+            position = worst;
+        }
+    }
+
+    private static void swap(float[] scores, int[] items, int i, int j) {
+        float score = scores[i];
+        scores[i] = scores[j];
+        scores[j] = score;
+        int item = items[i];
+        items[i] = items[j];
+        items[j] = item;
+    }
+
+    public static final class UserVector {
+        private final float[] factors;
+        private final int[] liked;
+
+        private UserVector(float[] factors, int[] liked) {
+            this.factors = factors;
+            this.liked = liked;
+        }
+    }
+}
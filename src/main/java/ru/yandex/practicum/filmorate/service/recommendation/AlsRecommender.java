@@ -0,0 +1,185 @@
+package ru.yandex.practicum.filmorate.service.recommendation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.LikeMatrix;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "filmorate.recommendations.strategy", havingValue = "als")
+public class AlsRecommender implements Recommender {
+    private final FilmStorage filmStorage;
+    private final AlsTrainer trainer;
+    private final ForkJoinPool pool;
+    private final int topK;
+    private final AtomicReference<TrainedState> state = new AtomicReference<>(new TrainedState(AlsModel.EMPTY));
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+    private final AtomicBoolean trainingScheduled = new AtomicBoolean();
+    private final ExecutorService trainingExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "als-train");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Object journalLock = new Object();
+    private final Map<Integer, Map<Integer, Boolean>> likeDelta = new HashMap<>();
+    private Map<Integer, Map<Integer, Boolean>> journal;
+
+    public AlsRecommender(@Qualifier("filmDbStorage") FilmStorage filmStorage,
+                          @Value("${filmorate.recommendations.als.factors:32}") int factors,
+                          @Value("${filmorate.recommendations.als.iterations:10}") int iterations,
+                          @Value("${filmorate.recommendations.als.regularization:0.1}") float regularization,
+                          @Value("${filmorate.recommendations.als.alpha:20}") float alpha,
+                          @Value("${filmorate.recommendations.als.top-k:100}") int topK,
+                          @Value("${filmorate.recommendations.build-parallelism:0}") int parallelism) {
+        this.filmStorage = filmStorage;
+        this.trainer = new AlsTrainer(factors, iterations, regularization, alpha);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.topK = topK;
+    }
+
+    @PostConstruct
+    public void init() {
+        scheduleTraining();
+    }
+
+    @Override
+    public List<Integer> recommend(int userId) {
+        if (stale.get()) {
+            scheduleTraining();
+        }
+        TrainedState current = state.get();
+        AlsModel.UserVector user = current.foldedUsers.get(userId);
+        if (user == null) {
+            user = current.model.getUserVector(userId);
+        }
+        return user != null ? current.model.recommend(user, topK) : List.of();
+    }
+
+    @Override
+    public void like(int userId, int filmId) {
+        change(userId, filmId, true);
+    }
+
+    @Override
+    public void unlike(int userId, int filmId) {
+        change(userId, filmId, false);
+    }
+
+    @Override
+    public void markStale() {
+        stale.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${filmorate.recommendations.als.train-delay-ms:3600000}")
+    public void retrain() {
+        markStale();
+        scheduleTraining();
+    }
+
+    public synchronized void train() {
+        if (!stale.compareAndSet(true, false)) {
+            return;
+        }
+        synchronized (journalLock) {
+            journal = new HashMap<>();
+        }
+        AlsModel trained;
+        long start;
+        try {
+            LikeMatrix likes = filmStorage.loadLikeMatrix();
+            start = System.nanoTime();
+            trained = trainer.train(likes, pool);
+        } catch (RuntimeException e) {
+            synchronized (journalLock) {
+                journal = null;
+            }
+            markStale();
+            throw e;
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        synchronized (journalLock) {
+            TrainedState next = new TrainedState(trained);
+            likeDelta.clear();
+            likeDelta.putAll(journal);
+            journal = null;
+            likeDelta.keySet().forEach(userId -> foldIn(next, userId));
+            state.set(next);
+        }
+        log.debug("Модель ALS обучена за {} мс ({} потоков): пользователей - {}, фильмов - {}, факторов - {}.",
+                elapsedMs, pool.getParallelism(), trained.getUserCount(), trained.getFilmCount(),
+                trained.getFactors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        trainingExecutor.shutdownNow();
+        pool.shutdown();
+    }
+
+    private void scheduleTraining() {
+        if (!trainingScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        trainingExecutor.execute(() -> {
+            try {
+                train();
+            } catch (RuntimeException e) {
+                log.error("Не удалось обучить модель ALS.", e);
+            } finally {
+                trainingScheduled.set(false);
+            }
+        });
+    }
+
+    private void change(int userId, int filmId, boolean liked) {
+        synchronized (journalLock) {
+            likeDelta.computeIfAbsent(userId, id -> new HashMap<>()).put(filmId, liked);
+            if (journal != null) {
+                journal.computeIfAbsent(userId, id -> new HashMap<>()).put(filmId, liked);
+            }
+            foldIn(state.get(), userId);
+        }
+    }
+
+    private void foldIn(TrainedState current, int userId) {
+        Set<Integer> liked = new HashSet<>(current.model.getLikedFilmIds(userId));
+        likeDelta.getOrDefault(userId, Map.of()).forEach((filmId, isLiked) -> {
+            if (isLiked) {
+                liked.add(filmId);
+            } else {
+                liked.remove(filmId);
+            }
+        });
+        current.foldedUsers.put(userId, current.model.foldIn(new ArrayList<>(liked), trainer.getAlpha()));
+    }
+
+    private static final class TrainedState {
+        private final AlsModel model;
+        private final Map<Integer, AlsModel.UserVector> foldedUsers = new ConcurrentHashMap<>();
+
+        private TrainedState(AlsModel model) {
+            this.model = model;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package ru.yandex.practicum.filmorate.service.recommendation;
+
+import ru.yandex.practicum.filmorate.storage.film.LikeMatrix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+public final class AlsTrainer {
+    private static final int BLOCKS_PER_WORKER = 4;
+    private static final long SEED = 42;
+
+    private final int factors;
+    private final int iterations;
+    private final float regularization;
+    private final float alpha;
+
+    public AlsTrainer(int factors, int iterations, float regularization, float alpha) {
+        if (factors <= 0 || iterations <= 0 || regularization <= 0 || alpha < 0) {
+            throw new IllegalArgumentException("Некорректные параметры обучения ALS.");
+        }
+        this.factors = factors;
+        this.iterations = iterations;
+        this.regularization = regularization;
+        this.alpha = alpha;
+    }
+
+    public float getAlpha() {
+        return alpha;
+    }
+
+    public AlsModel train(LikeMatrix likes, ForkJoinPool pool) {
+        int userCount = likes.getUserIds().length;
+        int filmCount = likes.getFilmIds().length;
+        int[] userOffsets = likes.getUserOffsets();
+        int[] userFilms = likes.getFilmIndexes();
+        int[] filmOffsets = new int[filmCount + 1];
+        for (int film : userFilms) {
+            filmOffsets[film + 1]++;
+        }
+        for (int i = 0; i < filmCount; i++) {
+            filmOffsets[i + 1] += filmOffsets[i];
+        }
+        int[] filmUsers = new int[userFilms.length];
+        int[] fill = Arrays.copyOf(filmOffsets, filmCount);
+        for (int u = 0; u < userCount; u++) {
+            for (int p = userOffsets[u]; p < userOffsets[u + 1]; p++) {
+                filmUsers[fill[userFilms[p]]++] = u;
+            }
+        }
+        Random random = new Random(SEED);
+        float[] userFactors = new float[userCount * factors];
+        float[] filmFactors = new float[filmCount * factors];
+        for (int i = 0; i < filmFactors.length; i++) {
+            filmFactors[i] = (float) (random.nextGaussian() * 0.01);
+        }
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            solveAll(pool, userFactors, userCount, filmFactors, filmCount, userOffsets, userFilms);
+            solveAll(pool, filmFactors, filmCount, userFactors, userCount, filmOffsets, filmUsers);
+        }
+        return new AlsModel(likes, factors, regularization, userFactors, filmFactors);
+    }
+
+    private void solveAll(ForkJoinPool pool, float[] target, int targetCount, float[] fixed, int fixedCount,
+                          int[] offsets, int[] indexes) {
+        double[] gram = gram(fixed, fixedCount, factors);
+        int blockCount = Math.max(1, Math.min(targetCount, pool.getParallelism() * BLOCKS_PER_WORKER));
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(blockCount);
+        for (int block = 0; block < blockCount; block++) {
+            int from = (int) ((long) targetCount * block / blockCount);
+            int to = (int) ((long) targetCount * (block + 1) / blockCount);
+            tasks.add(pool.submit(() -> {
+                double[] a = new double[factors * factors];
+                double[] b = new double[factors];
+                for (int i = from; i < to; i++) {
+                    solve(fixed, factors, gram, indexes, offsets[i], offsets[i + 1], alpha, regularization,
+                            a, b, target, i * factors);
+                }
+            }));
+        }
+        tasks.forEach(ForkJoinTask::join);
+    }
+
+    static double[] gram(float[] vectors, int count, int factors) {
+        double[] gram = new double[factors * factors];
+        for (int i = 0; i < count; i++) {
+            int base = i * factors;
+            for (int r = 0; r < factors; r++) {
+                double x = vectors[base + r];
+                for (int c = 0; c <= r; c++) {
+                    gram[r * factors + c] += x * vectors[base + c];
+                }
+            }
+        }
+        for (int r = 0; r < factors; r++) {
+            for (int c = 0; c < r; c++) {
+                gram[c * factors + r] = gram[r * factors + c];
+            }
+        }
+        return gram;
+    }
+
+    static void solve(float[] fixed, int factors, double[] gram, int[] indexes, int from, int to, float alpha,
+                      float regularization, double[] a, double[] b, float[] target, int targetOffset) {
+        System.arraycopy(gram, 0, a, 0, a.length);
+        Arrays.fill(b, 0);
+        for (int f = 0; f < factors; f++) {
+            a[f * factors + f] += regularization;
+        }
+        for (int p = from; p < to; p++) {
+            int base = indexes[p] * factors;
+            for (int r = 0; r < factors; r++) {
+                double x = fixed[base + r];
+                b[r] += (1 + alpha) * x;
+                for (int c = 0; c <= r; c++) {
+                    a[r * factors + c] += alpha * x * fixed[base + c];
+                }
+            }
+        }
+        for (int r = 0; r < factors; r++) {
+            for (int c = 0; c < r; c++) {
+                a[c * factors + r] = a[r * factors + c];
+            }
+        }
+        cholesky(a, factors);
+        for (int r = 0; r < factors; r++) {
+            double sum = b[r];
+            for (int c = 0; c < r; c++) {
+                sum -= a[r * factors + c] * b[c];
+            }
+            b[r] = sum / a[r * factors + r];
+        }
+        for (int r = factors - 1; r >= 0; r--) {
+            double sum = b[r];
+            for (int c = r + 1; c < factors; c++) {
+                sum -= a[c * factors + r] * b[c];
+            }
+            b[r] = sum / a[r * factors + r];
+        }
+        for (int f = 0; f < factors; f++) {
+            target[targetOffset + f] = (float) b[f];
+        }
+    }
+
+    private static void cholesky(double[] a, int n) {
+        for (int j = 0; j < n; j++) {
+            double diagonal = a[j * n + j];
+            for (int k = 0; k < j; k++) {
+                diagonal -= a[j * n + k] * a[j * n + k];
+            }
+            diagonal = Math.sqrt(diagonal);
+            a[j * n + j] = diagonal;
+            for (int i = j + 1; i < n; i++) {
+                double sum = a[i * n + j];
+                for (int k = 0; k < j; k++) {
+                    sum -= a[i * n + k] * a[j * n + k];
+                }
+                a[i * n + j] = sum / diagonal;
+            }
+        }
+    }
+}
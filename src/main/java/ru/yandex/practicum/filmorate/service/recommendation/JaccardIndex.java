@@ -0,0 +1,104 @@
+package ru.yandex.practicum.filmorate.service.recommendation;
+
+import org.roaringbitmap.RoaringBitmap;
+import ru.yandex.practicum.filmorate.storage.film.LikeMatrix;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class JaccardIndex implements LikeIndex {
+    private static final RoaringBitmap EMPTY_BITMAP = new RoaringBitmap();
+
+    private final Map<Integer, RoaringBitmap> likersByFilm = new HashMap<>();
+    private final Map<Integer, RoaringBitmap> filmsByUser = new HashMap<>();
+
+    public static JaccardIndex fromLikes(LikeMatrix likes) {
+        JaccardIndex index = new JaccardIndex();
+        int[] userIds = likes.getUserIds();
+        int[] filmIds = likes.getFilmIds();
+        int[] userOffsets = likes.getUserOffsets();
+        int[] filmIndexes = likes.getFilmIndexes();
+        for (int u = 0; u < userIds.length; u++) {
+            for (int p = userOffsets[u]; p < userOffsets[u + 1]; p++) {
+                index.like(userIds[u], filmIds[filmIndexes[p]]);
+            }
+        }
+        index.likersByFilm.values().forEach(RoaringBitmap::runOptimize);
+        return index;
+    }
+
+    @Override
+    public void like(int userId, int filmId) {
+        likersByFilm.computeIfAbsent(filmId, id -> new RoaringBitmap()).add(userId);
+        filmsByUser.computeIfAbsent(userId, id -> new RoaringBitmap()).add(filmId);
+    }
+
+    @Override
+    public void unlike(int userId, int filmId) {
+        remove(likersByFilm, filmId, userId);
+        remove(filmsByUser, userId, filmId);
+    }
+
+    RoaringBitmap getLikers(int filmId) {
+        return likersByFilm.getOrDefault(filmId, EMPTY_BITMAP);
+    }
+
+    RoaringBitmap getLikedFilms(int userId) {
+        return filmsByUser.getOrDefault(userId, EMPTY_BITMAP);
+    }
+
+    @Override
+    public int getFilmCount() {
+        return likersByFilm.size();
+    }
+
+    public double similarity(int filmId, int otherId) {
+        RoaringBitmap likers = likersByFilm.getOrDefault(filmId, EMPTY_BITMAP);
+        RoaringBitmap otherLikers = likersByFilm.getOrDefault(otherId, EMPTY_BITMAP);
+        int common = RoaringBitmap.andCardinality(likers, otherLikers);
+        if (common == 0) {
+            return 0;
+        }
+        return (double) common / (likers.getCardinality() + otherLikers.getCardinality() - common);
+    }
+
+    @Override
+    public List<Integer> recommend(int userId) {
+        RoaringBitmap liked = filmsByUser.get(userId);
+        if (liked == null) {
+            return List.of();
+        }
+        RoaringBitmap neighbours = new RoaringBitmap();
+        liked.forEach((int filmId) -> neighbours.or(likersByFilm.get(filmId)));
+        neighbours.remove(userId);
+        RoaringBitmap candidates = new RoaringBitmap();
+        neighbours.forEach((int neighbourId) -> candidates.or(filmsByUser.get(neighbourId)));
+        candidates.andNot(liked);
+        Map<Integer, Double> scores = new HashMap<>();
+        candidates.forEach((int candidateId) -> {
+            double score = 0;
+            for (int filmId : liked) {
+                score += similarity(candidateId, filmId);
+            }
+            scores.put(candidateId, score);
+        });
+        List<Map.Entry<Integer, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Integer, Double>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        List<Integer> recommended = new ArrayList<>(ranked.size());
+        ranked.forEach(entry -> recommended.add(entry.getKey()));
+        return recommended;
+    }
+
+    private static void remove(Map<Integer, RoaringBitmap> bitmaps, int key, int value) {
+        RoaringBitmap bitmap = bitmaps.get(key);
+        if (bitmap != null) {
+            bitmap.remove(value);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+}
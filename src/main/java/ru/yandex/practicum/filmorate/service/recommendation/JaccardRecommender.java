@@ -0,0 +1,21 @@
+package ru.yandex.practicum.filmorate.service.recommendation;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.LikeMatrix;
+
+@Component
+@ConditionalOnProperty(name = "filmorate.recommendations.strategy", havingValue = "jaccard")
+public class JaccardRecommender extends LikeIndexRecommender<JaccardIndex> {
+
+    public JaccardRecommender(@Qualifier("filmDbStorage") FilmStorage filmStorage) {
+        super(filmStorage);
+    }
+
+    @Override
+    protected JaccardIndex build(LikeMatrix likes) {
+        return JaccardIndex.fromLikes(likes);
+    }
+}
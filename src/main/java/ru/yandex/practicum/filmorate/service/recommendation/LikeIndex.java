@@ -0,0 +1,13 @@
+package ru.yandex.practicum.filmorate.service.recommendation;
+
+import java.util.List;
+
+public interface LikeIndex {
+    void like(int userId, int filmId);
+
+    void unlike(int userId, int filmId);
+
+    List<Integer> recommend(int userId);
+
+    int getFilmCount();
+}
@@ -0,0 +1,137 @@
+package ru.yandex.practicum.filmorate.service.recommendation;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.LikeMatrix;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+@Slf4j
+public abstract class LikeIndexRecommender<T extends LikeIndex> implements Recommender {
+    private final FilmStorage filmStorage;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "like-index-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile T index;
+    private List<Consumer<T>> journal;
+
+    protected LikeIndexRecommender(FilmStorage filmStorage) {
+        this.filmStorage = filmStorage;
+    }
+
+    protected abstract T build(LikeMatrix likes);
+
+    @Override
+    public List<Integer> recommend(int userId) {
+        if (index == null) {
+            rebuild();
+        } else if (stale.get()) {
+            scheduleRebuild();
+        }
+        lock.readLock().lock();
+        try {
+            return index != null ? index.recommend(userId) : List.of();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void like(int userId, int filmId) {
+        apply(current -> current.like(userId, filmId));
+    }
+
+    @Override
+    public void unlike(int userId, int filmId) {
+        apply(current -> current.unlike(userId, filmId));
+    }
+
+    @Override
+    public void markStale() {
+        stale.set(true);
+    }
+
+    public synchronized void rebuild() {
+        if (!stale.compareAndSet(true, false)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            journal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LikeMatrix likes;
+        T rebuilt;
+        try {
+            likes = filmStorage.loadLikeMatrix();
+            rebuilt = build(likes);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                journal = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            markStale();
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            journal.forEach(change -> change.accept(rebuilt));
+            journal = null;
+            index = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Индекс лайков для рекомендаций ({}) перестроен: лайков - {}, фильмов - {}.",
+                getClass().getSimpleName(), likes.getLikeCount(), rebuilt.getFilmCount());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private void scheduleRebuild() {
+        if (!rebuildScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        rebuilder.execute(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.error("Не удалось перестроить индекс лайков для рекомендаций.", e);
+            } finally {
+                rebuildScheduled.set(false);
+            }
+        });
+    }
+
+    private void apply(Consumer<T> change) {
+        lock.writeLock().lock();
+        try {
+            if (index != null) {
+                change.accept(index);
+            }
+            if (journal != null) {
+                journal.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
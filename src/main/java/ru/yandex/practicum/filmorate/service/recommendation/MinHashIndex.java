@@ -0,0 +1,194 @@
+package ru.yandex.practicum.filmorate.service.recommendation;
+
+import org.roaringbitmap.RoaringBitmap;
+import ru.yandex.practicum.filmorate.storage.film.LikeMatrix;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+public final class MinHashIndex implements LikeIndex {
+    private static final long SEED = 0x5DEECE66DL;
+
+    private final JaccardIndex likes;
+    private final int bands;
+    private final int rows;
+    private final long[] seeds;
+    private final Map<Integer, int[]> signatures = new HashMap<>();
+    private final Map<Integer, long[]> bandKeys = new HashMap<>();
+    private final List<Map<Long, Set<Integer>>> buckets;
+
+    private MinHashIndex(JaccardIndex likes, int bands, int rows) {
+        if (bands <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("Количество полос и строк MinHash должно быть положительным.");
+        }
+        this.likes = likes;
+        this.bands = bands;
+        this.rows = rows;
+        this.seeds = new Random(SEED).longs(bands * rows).toArray();
+        this.buckets = new ArrayList<>(bands);
+        for (int band = 0; band < bands; band++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    public static MinHashIndex fromLikes(LikeMatrix likeMatrix, int bands, int rows) {
+        MinHashIndex index = new MinHashIndex(JaccardIndex.fromLikes(likeMatrix), bands, rows);
+        for (int filmId : likeMatrix.getFilmIds()) {
+            index.resign(filmId);
+        }
+        return index;
+    }
+
+    @Override
+    public void like(int userId, int filmId) {
+        likes.like(userId, filmId);
+        int[] signature = signatures.get(filmId);
+        if (signature == null) {
+            resign(filmId);
+            return;
+        }
+        boolean changed = false;
+        for (int i = 0; i < seeds.length; i++) {
+            int hash = hash(userId, seeds[i]);
+            if (hash < signature[i]) {
+                signature[i] = hash;
+                changed = true;
+            }
+        }
+        if (changed) {
+            rebucket(filmId, signature);
+        }
+    }
+
+    @Override
+    public void unlike(int userId, int filmId) {
+        likes.unlike(userId, filmId);
+        resign(filmId);
+    }
+
+    @Override
+    public List<Integer> recommend(int userId) {
+        RoaringBitmap liked = likes.getLikedFilms(userId);
+        Map<Integer, Double> scores = new HashMap<>();
+        liked.forEach((int filmId) -> {
+            for (int candidateId : candidates(filmId)) {
+                if (!liked.contains(candidateId)) {
+                    scores.merge(candidateId, likes.similarity(candidateId, filmId), Double::sum);
+                }
+            }
+        });
+        List<Map.Entry<Integer, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Integer, Double>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        List<Integer> recommended = new ArrayList<>(ranked.size());
+        ranked.forEach(entry -> recommended.add(entry.getKey()));
+        return recommended;
+    }
+
+    @Override
+    public int getFilmCount() {
+        return signatures.size();
+    }
+
+    public double estimateSimilarity(int filmId, int otherId) {
+        int[] signature = signatures.get(filmId);
+        int[] otherSignature = signatures.get(otherId);
+        if (signature == null || otherSignature == null) {
+            return 0;
+        }
+        int equal = 0;
+        for (int i = 0; i < signature.length; i++) {
+            if (signature[i] == otherSignature[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / signature.length;
+    }
+
+    private Set<Integer> candidates(int filmId) {
+        long[] keys = bandKeys.get(filmId);
+        if (keys == null) {
+            return Set.of();
+        }
+        Set<Integer> candidates = new HashSet<>();
+        for (int band = 0; band < bands; band++) {
+            candidates.addAll(buckets.get(band).get(keys[band]));
+        }
+        candidates.remove(filmId);
+        return candidates;
+    }
+
+    private void resign(int filmId) {
+        RoaringBitmap likers = likes.getLikers(filmId);
+        if (likers.isEmpty()) {
+            unbucket(filmId);
+            signatures.remove(filmId);
+            return;
+        }
+        int[] signature = new int[seeds.length];
+        for (int i = 0; i < seeds.length; i++) {
+            long seed = seeds[i];
+            int min = Integer.MAX_VALUE;
+            for (int userId : likers) {
+                min = Math.min(min, hash(userId, seed));
+            }
+            signature[i] = min;
+        }
+        signatures.put(filmId, signature);
+        rebucket(filmId, signature);
+    }
+
+    private void rebucket(int filmId, int[] signature) {
+        long[] oldKeys = bandKeys.get(filmId);
+        long[] newKeys = new long[bands];
+        for (int band = 0; band < bands; band++) {
+            long key = band;
+            for (int row = 0; row < rows; row++) {
+                key = mix(key * 31 + signature[band * rows + row]);
+            }
+            newKeys[band] = key;
+            if (oldKeys != null && oldKeys[band] == key) {
+                continue;
+            }
+            if (oldKeys != null) {
+                removeFromBucket(band, oldKeys[band], filmId);
+            }
+            buckets.get(band).computeIfAbsent(key, k -> new HashSet<>()).add(filmId);
+        }
+        bandKeys.put(filmId, newKeys);
+    }
+
+    private void unbucket(int filmId) {
+        long[] keys = bandKeys.remove(filmId);
+        if (keys != null) {
+            for (int band = 0; band < bands; band++) {
+                removeFromBucket(band, keys[band], filmId);
+            }
+        }
+    }
+
+    private void removeFromBucket(int band, long key, int filmId) {
+        Set<Integer> bucket = buckets.get(band).get(key);
+        if (bucket != null) {
+            bucket.remove(filmId);
+            if (bucket.isEmpty()) {
+                buckets.get(band).remove(key);
+            }
+        }
+    }
+
+    private static int hash(int value, long seed) {
+        return (int) (mix(value ^ seed) >>> 32);
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+}
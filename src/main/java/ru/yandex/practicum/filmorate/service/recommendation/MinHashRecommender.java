@@ -0,0 +1,28 @@
+package ru.yandex.practicum.filmorate.service.recommendation;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.LikeMatrix;
+
+@Component
+@ConditionalOnProperty(name = "filmorate.recommendations.strategy", havingValue = "minhash")
+public class MinHashRecommender extends LikeIndexRecommender<MinHashIndex> {
+    private final int bands;
+    private final int rows;
+
+    public MinHashRecommender(@Qualifier("filmDbStorage") FilmStorage filmStorage,
+                              @Value("${filmorate.recommendations.minhash.bands:32}") int bands,
+                              @Value("${filmorate.recommendations.minhash.rows:1}") int rows) {
+        super(filmStorage);
+        this.bands = bands;
+        this.rows = rows;
+    }
+
+    @Override
+    protected MinHashIndex build(LikeMatrix likes) {
+        return MinHashIndex.fromLikes(likes, bands, rows);
+    }
+}
@@ -0,0 +1,146 @@
+package ru.yandex.practicum.filmorate.service.recommendation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.storage.recommendation.RecommendationStorage;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+public class RecommendationCache {
+    private final Recommender recommender;
+    private final RecommendationStorage recommendationStorage;
+    private final Cache<Integer, List<Integer>> cache;
+    private final int topN;
+    private final boolean persist;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Set<Integer> invalidated = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "recommendation-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RecommendationCache(Recommender recommender,
+                               RecommendationStorage recommendationStorage,
+                               @Value("${filmorate.recommendations.cache.maximum-size:10000}") long maximumSize,
+                               @Value("${filmorate.recommendations.cache.top-n:100}") int topN,
+                               @Value("${filmorate.recommendations.cache.persist:false}") boolean persist) {
+        this.recommender = recommender;
+        this.recommendationStorage = recommendationStorage;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+        this.topN = topN;
+        this.persist = persist;
+    }
+
+    public List<Integer> get(int userId) {
+        List<Integer> cached = cache.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+        long seen = invalidations.get();
+        if (persist) {
+            Optional<List<Integer>> stored = recommendationStorage.getByUserId(userId);
+            if (stored.isPresent()) {
+                store(userId, stored.get(), seen, false);
+                return stored.get();
+            }
+        }
+        List<Integer> top = compute(userId);
+        store(userId, top, seen, persist);
+        return top;
+    }
+
+    public void invalidate(int userId) {
+        evict(userId);
+        invalidated.add(userId);
+    }
+
+    public void evict(int userId) {
+        invalidations.incrementAndGet();
+        invalidated.remove(userId);
+        cache.invalidate(userId);
+        if (persist) {
+            recommendationStorage.remove(userId);
+        }
+    }
+
+    public void invalidateAll() {
+        invalidated.addAll(cache.asMap().keySet());
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @Scheduled(fixedDelayString = "${filmorate.recommendations.cache.refresh-delay-ms:60000}")
+    public void refresh() {
+        if (invalidated.isEmpty() || !refreshScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        refresher.execute(() -> {
+            try {
+                refreshInvalidated();
+            } catch (RuntimeException e) {
+                log.error("Не удалось пересчитать рекомендации.", e);
+            } finally {
+                refreshScheduled.set(false);
+            }
+        });
+    }
+
+    public void refreshInvalidated() {
+        List<Integer> userIds = new ArrayList<>(invalidated);
+        invalidated.removeAll(userIds);
+        int refreshed = 0;
+        for (int userId : userIds) {
+            if (cache.getIfPresent(userId) != null) {
+                continue;
+            }
+            long seen = invalidations.get();
+            store(userId, compute(userId), seen, persist);
+            refreshed++;
+        }
+        if (refreshed > 0) {
+            log.debug("Рекомендации пересчитаны для {} пользователей.", refreshed);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private List<Integer> compute(int userId) {
+        List<Integer> recommended = recommender.recommend(userId);
+        return List.copyOf(recommended.subList(0, Math.min(topN, recommended.size())));
+    }
+
+    private void store(int userId, List<Integer> top, long seen, boolean save) {
+        cache.put(userId, top);
+        if (save) {
+            recommendationStorage.save(userId, top);
+        }
+        if (invalidations.get() != seen) {
+            cache.invalidate(userId);
+            if (save) {
+                recommendationStorage.remove(userId);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package ru.yandex.practicum.filmorate.service.recommendation;
+
+import java.util.List;
+
+public interface Recommender {
+    List<Integer> recommend(int userId);
+
+    void like(int userId, int filmId);
+
+    void unlike(int userId, int filmId);
+
+    void markStale();
+}
@@ -0,0 +1,130 @@
+package ru.yandex.practicum.filmorate.service.recommendation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class SlopeOneDelta {
+    private static final double EPSILON = 1e-9;
+
+    private final SlopeOneModel base;
+    private final Map<Integer, Map<Integer, Float>> ratings = new HashMap<>();
+    private final Map<Integer, Map<Integer, PairDelta>> rows = new HashMap<>();
+    private int likeCountDelta;
+    private int pairCount;
+
+    public SlopeOneDelta(SlopeOneModel base) {
+        this.base = base;
+    }
+
+    public SlopeOneModel getBase() {
+        return base;
+    }
+
+    public synchronized boolean rate(int userId, int filmId, float rating) {
+        Map<Integer, Float> userRatings = ratings.computeIfAbsent(userId, id -> new HashMap<>(base.getRatings(id)));
+        if (userRatings.containsKey(filmId)) {
+            return false;
+        }
+        userRatings.forEach((otherId, otherRating) -> {
+            change(filmId, otherId, rating - otherRating, 1);
+            change(otherId, filmId, otherRating - rating, 1);
+        });
+        userRatings.put(filmId, rating);
+        likeCountDelta++;
+        return true;
+    }
+
+    public synchronized boolean unrate(int userId, int filmId) {
+        Map<Integer, Float> userRatings = ratings.computeIfAbsent(userId, id -> new HashMap<>(base.getRatings(id)));
+        Float rating = userRatings.remove(filmId);
+        if (rating == null) {
+            return false;
+        }
+        userRatings.forEach((otherId, otherRating) -> {
+            change(filmId, otherId, otherRating - rating, -1);
+            change(otherId, filmId, rating - otherRating, -1);
+        });
+        likeCountDelta--;
+        return true;
+    }
+
+    public synchronized long getLikeCount() {
+        return (long) base.getRatingCount() + likeCountDelta;
+    }
+
+    public synchronized int getPairCount() {
+        return pairCount;
+    }
+
+    public synchronized Map<Integer, Double> predict(int userId) {
+        if (ratings.isEmpty()) {
+            return base.predict(userId);
+        }
+        Map<Integer, Float> userRatings = ratings.containsKey(userId) ? ratings.get(userId) : base.getRatings(userId);
+        Map<Integer, double[]> sums = new HashMap<>();
+        userRatings.forEach((filmId, rating) -> {
+            base.forEachDeviation(filmId, (otherId, deviation, frequency) -> {
+                if (!userRatings.containsKey(otherId)) {
+                    double[] sum = sums.computeIfAbsent(otherId, id -> new double[2]);
+                    sum[0] += ((double) rating - deviation) * frequency;
+                    sum[1] += frequency;
+                }
+            });
+            rows.getOrDefault(filmId, Map.of()).forEach((otherId, delta) -> {
+                if (!userRatings.containsKey(otherId)) {
+                    double[] sum = sums.computeIfAbsent(otherId, id -> new double[2]);
+                    sum[0] += (double) rating * delta.count - delta.sum;
+                    sum[1] += delta.count;
+                }
+            });
+        });
+        Map<Integer, Double> predictions = new HashMap<>();
+        sums.forEach((filmId, sum) -> {
+            if (sum[1] > 0) {
+                predictions.put(filmId, sum[0] / sum[1]);
+            }
+        });
+        return predictions;
+    }
+
+    public List<Integer> recommend(int userId) {
+        synchronized (this) {
+            if (ratings.isEmpty()) {
+                return base.recommend(userId);
+            }
+        }
+        List<Map.Entry<Integer, Double>> predictions = new ArrayList<>(predict(userId).entrySet());
+        predictions.removeIf(prediction -> prediction.getValue() <= 0);
+        predictions.sort(Map.Entry.<Integer, Double>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        List<Integer> recommended = new ArrayList<>(predictions.size());
+        predictions.forEach(prediction -> recommended.add(prediction.getKey()));
+        return recommended;
+    }
+
+    private void change(int filmId, int otherId, double sum, int count) {
+        Map<Integer, PairDelta> row = rows.computeIfAbsent(filmId, id -> new HashMap<>());
+        PairDelta delta = row.get(otherId);
+        if (delta == null) {
+            delta = new PairDelta();
+            row.put(otherId, delta);
+            pairCount++;
+        }
+        delta.sum += sum;
+        delta.count += count;
+        if (delta.count == 0 && Math.abs(delta.sum) < EPSILON) {
+            row.remove(otherId);
+            pairCount--;
+            if (row.isEmpty()) {
+                rows.remove(filmId);
+            }
+        }
+    }
+
+    private static final class PairDelta {
+        private double sum;
+        private int count;
+    }
+}
@@ -0,0 +1,348 @@
+package ru.yandex.practicum.filmorate.service.recommendation;
+
+import ru.yandex.practicum.filmorate.storage.film.LikeMatrix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+public final class SlopeOneModel {
+    public static final SlopeOneModel EMPTY = new SlopeOneModel(new int[0], new int[0], new int[1], new int[0],
+            new float[0], new int[1], new int[0], new float[0], new int[0]);
+    private static final int BLOCKS_PER_WORKER = 4;
+
+    private final int[] userIds;
+    private final int[] filmIds;
+    private final int[] userOffsets;
+    private final int[] userItems;
+    private final float[] userValues;
+    private final int[] rowOffsets;
+    private final int[] columns;
+    private final float[] deviations;
+    private final int[] frequencies;
+
+    private SlopeOneModel(int[] userIds, int[] filmIds, int[] userOffsets, int[] userItems, float[] userValues,
+                          int[] rowOffsets, int[] columns, float[] deviations, int[] frequencies) {
+        this.userIds = userIds;
+        this.filmIds = filmIds;
+        this.userOffsets = userOffsets;
+        this.userItems = userItems;
+        this.userValues = userValues;
+        this.rowOffsets = rowOffsets;
+        this.columns = columns;
+        this.deviations = deviations;
+        this.frequencies = frequencies;
+    }
+
+    public static SlopeOneModel build(Map<Integer, Map<Integer, Double>> ratings) {
+        int[] userIds = ratings.keySet().stream()
+                .mapToInt(Integer::intValue)
+                .sorted()
+                .toArray();
+        int[] filmIds = ratings.values().stream()
+                .flatMap(userRatings -> userRatings.keySet().stream())
+                .mapToInt(Integer::intValue)
+                .distinct()
+                .sorted()
+                .toArray();
+        int[] userOffsets = new int[userIds.length + 1];
+        for (int u = 0; u < userIds.length; u++) {
+            userOffsets[u + 1] = userOffsets[u] + ratings.get(userIds[u]).size();
+        }
+        int[] userItems = new int[userOffsets[userIds.length]];
+        float[] userValues = new float[userItems.length];
+        for (int u = 0; u < userIds.length; u++) {
+            int[] items = ratings.get(userIds[u]).keySet().stream()
+                    .mapToInt(filmId -> Arrays.binarySearch(filmIds, filmId))
+                    .sorted()
+                    .toArray();
+            for (int i = 0; i < items.length; i++) {
+                userItems[userOffsets[u] + i] = items[i];
+                userValues[userOffsets[u] + i] = ratings.get(userIds[u]).get(filmIds[items[i]]).floatValue();
+            }
+        }
+        return build(userIds, filmIds, userOffsets, userItems, userValues);
+    }
+
+    public static SlopeOneModel fromLikes(LikeMatrix likes) {
+        return fromLikes(likes, null);
+    }
+
+    public static SlopeOneModel fromLikes(LikeMatrix likes, ForkJoinPool pool) {
+        float[] values = new float[likes.getLikeCount()];
+        Arrays.fill(values, 1.0f);
+        return build(likes.getUserIds(), likes.getFilmIds(), likes.getUserOffsets(), likes.getFilmIndexes(), values,
+                pool);
+    }
+
+    static SlopeOneModel build(int[] userIds, int[] filmIds, int[] userOffsets, int[] userItems, float[] userValues) {
+        return build(userIds, filmIds, userOffsets, userItems, userValues, null);
+    }
+
+    static SlopeOneModel build(int[] userIds, int[] filmIds, int[] userOffsets, int[] userItems, float[] userValues,
+                               ForkJoinPool pool) {
+        RowBuilder builder = new RowBuilder(userIds.length, filmIds.length, userOffsets, userItems, userValues);
+        List<RowBlock> blocks = new ArrayList<>();
+        if (pool == null || pool.getParallelism() == 1) {
+            blocks.add(builder.rows(0, filmIds.length));
+        } else {
+            List<ForkJoinTask<RowBlock>> tasks = new ArrayList<>();
+            for (int[] range : builder.split(pool.getParallelism() * BLOCKS_PER_WORKER)) {
+                tasks.add(pool.submit(() -> builder.rows(range[0], range[1])));
+            }
+            tasks.forEach(task -> blocks.add(task.join()));
+        }
+        int size = blocks.stream().mapToInt(block -> block.size).sum();
+        int[] rowOffsets = new int[filmIds.length + 1];
+        int[] columns = new int[size];
+        float[] deviations = new float[size];
+        int[] frequencies = new int[size];
+        int base = 0;
+        for (RowBlock block : blocks) {
+            for (int i = block.from; i < block.to; i++) {
+                rowOffsets[i + 1] = base + block.offsets[i - block.from + 1];
+            }
+            System.arraycopy(block.columns, 0, columns, base, block.size);
+            System.arraycopy(block.deviations, 0, deviations, base, block.size);
+            System.arraycopy(block.frequencies, 0, frequencies, base, block.size);
+            base += block.size;
+        }
+        return new SlopeOneModel(userIds, filmIds, userOffsets, userItems, userValues, rowOffsets,
+                columns, deviations, frequencies);
+    }
+
+    public int getFilmCount() {
+        return filmIds.length;
+    }
+
+    public int getDeviationCount() {
+        return columns.length;
+    }
+
+    public int getRatingCount() {
+        return userItems.length;
+    }
+
+    Map<Integer, Float> getRatings(int userId) {
+        int u = Arrays.binarySearch(userIds, userId);
+        if (u < 0) {
+            return Map.of();
+        }
+        Map<Integer, Float> ratings = new HashMap<>();
+        for (int p = userOffsets[u]; p < userOffsets[u + 1]; p++) {
+            ratings.put(filmIds[userItems[p]], userValues[p]);
+        }
+        return ratings;
+    }
+
+    void forEachDeviation(int filmId, DeviationConsumer consumer) {
+        int i = Arrays.binarySearch(filmIds, filmId);
+        if (i < 0) {
+            return;
+        }
+        for (int q = rowOffsets[i]; q < rowOffsets[i + 1]; q++) {
+            consumer.accept(filmIds[columns[q]], deviations[q], frequencies[q]);
+        }
+    }
+
+    public Map<Integer, Double> predict(int userId) {
+        Map<Integer, Double> result = new HashMap<>();
+        forEachPrediction(userId, (item, prediction) -> result.put(filmIds[item], prediction));
+        return result;
+    }
+
+    public List<Integer> recommend(int userId) {
+        List<Integer> items = new ArrayList<>();
+        double[] predictions = forEachPrediction(userId, (item, prediction) -> {
+            if (prediction > 0) {
+                items.add(item);
+            }
+        });
+        items.sort(Comparator.comparingDouble((Integer item) -> predictions[item]).reversed()
+                .thenComparingInt(item -> filmIds[item]));
+        List<Integer> recommended = new ArrayList<>(items.size());
+        items.forEach(item -> recommended.add(filmIds[item]));
+        return recommended;
+    }
+
+    private double[] forEachPrediction(int userId, PredictionConsumer consumer) {
+        int u = Arrays.binarySearch(userIds, userId);
+        if (u < 0) {
+            return new double[0];
+        }
+        int filmCount = filmIds.length;
+        double[] weighted = new double[filmCount];
+        int[] weights = new int[filmCount];
+        int[] touched = new int[filmCount];
+        boolean[] rated = new boolean[filmCount];
+        for (int p = userOffsets[u]; p < userOffsets[u + 1]; p++) {
+            rated[userItems[p]] = true;
+        }
+        int touchedCount = 0;
+        for (int p = userOffsets[u]; p < userOffsets[u + 1]; p++) {
+            int j = userItems[p];
+            float rating = userValues[p];
+            for (int q = rowOffsets[j]; q < rowOffsets[j + 1]; q++) {
+                int k = columns[q];
+                if (rated[k]) {
+                    continue;
+                }
+                if (weights[k] == 0) {
+                    touched[touchedCount++] = k;
+                }
+                weighted[k] += ((double) rating - deviations[q]) * frequencies[q];
+                weights[k] += frequencies[q];
+            }
+        }
+        for (int t = 0; t < touchedCount; t++) {
+            int k = touched[t];
+            weighted[k] /= weights[k];
+            consumer.accept(k, weighted[k]);
+        }
+        return weighted;
+    }
+
+    private static final class RowBuilder {
+        private final int filmCount;
+        private final int[] userOffsets;
+        private final int[] userItems;
+        private final float[] userValues;
+        private final int[] itemOffsets;
+        private final int[] itemRatings;
+        private final int[] itemUsers;
+
+        RowBuilder(int userCount, int filmCount, int[] userOffsets, int[] userItems, float[] userValues) {
+            this.filmCount = filmCount;
+            this.userOffsets = userOffsets;
+            this.userItems = userItems;
+            this.userValues = userValues;
+            itemOffsets = new int[filmCount + 1];
+            for (int item : userItems) {
+                itemOffsets[item + 1]++;
+            }
+            for (int i = 0; i < filmCount; i++) {
+                itemOffsets[i + 1] += itemOffsets[i];
+            }
+            itemRatings = new int[userItems.length];
+            itemUsers = new int[userItems.length];
+            int[] fill = Arrays.copyOf(itemOffsets, filmCount);
+            for (int u = 0; u < userCount; u++) {
+                for (int p = userOffsets[u]; p < userOffsets[u + 1]; p++) {
+                    int position = fill[userItems[p]]++;
+                    itemRatings[position] = p;
+                    itemUsers[position] = u;
+                }
+            }
+        }
+
+        List<int[]> split(int blockCount) {
+            long[] costs = new long[filmCount];
+            long total = 0;
+            for (int i = 0; i < filmCount; i++) {
+                for (int q = itemOffsets[i]; q < itemOffsets[i + 1]; q++) {
+                    int u = itemUsers[q];
+                    costs[i] += userOffsets[u + 1] - userOffsets[u];
+                }
+                total += costs[i];
+            }
+            long target = Math.max(1, total / blockCount);
+            List<int[]> ranges = new ArrayList<>();
+            int from = 0;
+            long cost = 0;
+            for (int i = 0; i < filmCount; i++) {
+                cost += costs[i];
+                if (cost >= target) {
+                    ranges.add(new int[]{from, i + 1});
+                    from = i + 1;
+                    cost = 0;
+                }
+            }
+            if (from < filmCount || ranges.isEmpty()) {
+                ranges.add(new int[]{from, filmCount});
+            }
+            return ranges;
+        }
+
+        RowBlock rows(int from, int to) {
+            double[] sums = new double[filmCount];
+            int[] counts = new int[filmCount];
+            int[] touched = new int[filmCount];
+            int[] offsets = new int[to - from + 1];
+            int[] columns = new int[16];
+            float[] deviations = new float[columns.length];
+            int[] frequencies = new int[columns.length];
+            int size = 0;
+            for (int i = from; i < to; i++) {
+                int touchedCount = 0;
+                for (int q = itemOffsets[i]; q < itemOffsets[i + 1]; q++) {
+                    int u = itemUsers[q];
+                    float rating = userValues[itemRatings[q]];
+                    for (int p = userOffsets[u]; p < userOffsets[u + 1]; p++) {
+                        int j = userItems[p];
+                        if (j == i) {
+                            continue;
+                        }
+                        if (counts[j] == 0) {
+                            touched[touchedCount++] = j;
+                        }
+                        sums[j] += rating - userValues[p];
+                        counts[j]++;
+                    }
+                }
+                Arrays.sort(touched, 0, touchedCount);
+                if (size + touchedCount > columns.length) {
+                    int capacity = Math.max(columns.length * 2, size + touchedCount);
+                    columns = Arrays.copyOf(columns, capacity);
+                    deviations = Arrays.copyOf(deviations, capacity);
+                    frequencies = Arrays.copyOf(frequencies, capacity);
+                }
+                for (int t = 0; t < touchedCount; t++) {
+                    int j = touched[t];
+                    columns[size] = j;
+                    deviations[size] = (float) (sums[j] / counts[j]);
+                    frequencies[size] = counts[j];
+                    size++;
+                    sums[j] = 0;
+                    counts[j] = 0;
+                }
+                offsets[i - from + 1] = size;
+            }
+            return new RowBlock(from, to, offsets, columns, deviations, frequencies, size);
+        }
+    }
+
+    private static final class RowBlock {
+        private final int from;
+        private final int to;
+        private final int[] offsets;
+        private final int[] columns;
+        private final float[] deviations;
+        private final int[] frequencies;
+        private final int size;
+
+        RowBlock(int from, int to, int[] offsets, int[] columns, float[] deviations, int[] frequencies, int size) {
+            this.from = from;
+            this.to = to;
+            this.offsets = offsets;
+            this.columns = columns;
+            this.deviations = deviations;
+            this.frequencies = frequencies;
+            this.size = size;
+        }
+    }
+
+    @FunctionalInterface
+    interface DeviationConsumer {
+        void accept(int filmId, float deviation, int frequency);
+    }
+
+    @FunctionalInterface
+    private interface PredictionConsumer {
+        void accept(int item, double prediction);
+    }
+}
@@ -0,0 +1,176 @@
+package ru.yandex.practicum.filmorate.service.recommendation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.LikeMatrix;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "filmorate.recommendations.strategy", havingValue = "slope-one", matchIfMissing = true)
+public class SlopeOneRecommender implements Recommender {
+    private static final float LIKE_RATING = 1.0f;
+
+    private final FilmStorage filmStorage;
+    private final ForkJoinPool pool;
+    private final int maxDeltaPairs;
+    private final AtomicReference<SlopeOneDelta> state =
+            new AtomicReference<>(new SlopeOneDelta(SlopeOneModel.EMPTY));
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final AtomicLong appliedChanges = new AtomicLong();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "slope-one-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Object journalLock = new Object();
+    private List<Consumer<SlopeOneDelta>> journal;
+    private volatile boolean built;
+    private boolean driftSuspected;
+
+    public SlopeOneRecommender(@Qualifier("filmDbStorage") FilmStorage filmStorage,
+                               @Value("${filmorate.recommendations.build-parallelism:0}") int parallelism,
+                               @Value("${filmorate.recommendations.max-delta-pairs:100000}") int maxDeltaPairs) {
+        this.filmStorage = filmStorage;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.maxDeltaPairs = maxDeltaPairs;
+    }
+
+    @Override
+    public List<Integer> recommend(int userId) {
+        if (!built) {
+            rebuild();
+        } else if (stale.get()) {
+            scheduleRebuild();
+        }
+        return state.get().recommend(userId);
+    }
+
+    @Override
+    public void like(int userId, int filmId) {
+        apply(delta -> delta.rate(userId, filmId, LIKE_RATING));
+    }
+
+    @Override
+    public void unlike(int userId, int filmId) {
+        apply(delta -> delta.unrate(userId, filmId));
+    }
+
+    @Override
+    public void markStale() {
+        stale.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${filmorate.recommendations.drift-check-delay-ms:600000}")
+    public void checkDrift() {
+        if (stale.get() || rebuildScheduled.get()) {
+            return;
+        }
+        long applied = appliedChanges.get();
+        SlopeOneDelta delta = state.get();
+        long stored = filmStorage.getLikeCount();
+        long modelled = delta.getLikeCount();
+        if (stored != modelled) {
+            if (applied != appliedChanges.get()) {
+                return;
+            }
+            if (!driftSuspected) {
+                driftSuspected = true;
+                log.debug("Лайков в базе - {}, в модели - {}, проверим при следующем запуске.", stored, modelled);
+                return;
+            }
+            log.warn("Модель рекомендаций расходится с базой: лайков в базе - {}, в модели - {}.", stored, modelled);
+        } else if (delta.getPairCount() > maxDeltaPairs) {
+            log.debug("Накоплено {} изменений пар фильмов, модель рекомендаций будет перестроена.",
+                    delta.getPairCount());
+        } else {
+            driftSuspected = false;
+            return;
+        }
+        driftSuspected = false;
+        markStale();
+        scheduleRebuild();
+    }
+
+    public synchronized void rebuild() {
+        if (!stale.compareAndSet(true, false)) {
+            return;
+        }
+        synchronized (journalLock) {
+            journal = new ArrayList<>();
+        }
+        LikeMatrix likes;
+        SlopeOneModel rebuilt;
+        long start;
+        try {
+            likes = filmStorage.loadLikeMatrix();
+            start = System.nanoTime();
+            rebuilt = SlopeOneModel.fromLikes(likes, pool);
+        } catch (RuntimeException e) {
+            synchronized (journalLock) {
+                journal = null;
+            }
+            markStale();
+            throw e;
+        }
+        long elapsedMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        SlopeOneDelta delta = new SlopeOneDelta(rebuilt);
+        synchronized (journalLock) {
+            journal.forEach(change -> change.accept(delta));
+            journal = null;
+            state.set(delta);
+        }
+        built = true;
+        log.debug("Модель рекомендаций перестроена за {} мс ({} потоков, {} лайков/с): лайков - {}, фильмов - {}, "
+                        + "отклонений - {}.", elapsedMs, pool.getParallelism(), likes.getLikeCount() * 1000L / elapsedMs,
+                likes.getLikeCount(), rebuilt.getFilmCount(), rebuilt.getDeviationCount());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+        pool.shutdown();
+    }
+
+    private void scheduleRebuild() {
+        if (!rebuildScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        rebuilder.execute(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.error("Не удалось перестроить модель рекомендаций.", e);
+            } finally {
+                rebuildScheduled.set(false);
+            }
+        });
+    }
+
+    private void apply(Consumer<SlopeOneDelta> change) {
+        synchronized (journalLock) {
+            change.accept(state.get());
+            if (journal != null) {
+                journal.add(change);
+            }
+            appliedChanges.incrementAndGet();
+        }
+    }
+}
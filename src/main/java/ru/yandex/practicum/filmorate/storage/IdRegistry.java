@@ -0,0 +1,75 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class IdRegistry {
+    private final BitSet ids = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void add(Integer id) {
+        if (id == null || id < 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            ids.set(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void replaceAll(Collection<Integer> loaded) {
+        lock.writeLock().lock();
+        try {
+            ids.clear();
+            for (Integer id : loaded) {
+                if (id != null && id >= 0) {
+                    ids.set(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer id) {
+        if (id == null || id < 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            ids.clear(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(Integer id) {
+        if (id == null || id < 0) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return ids.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean containsAll(Collection<Integer> candidates) {
+        lock.readLock().lock();
+        try {
+            for (Integer id : candidates) {
+                if (id == null || id < 0 || !ids.get(id)) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReferenceDataRegistry {
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Genre[] genres = new Genre[0];
+    private volatile Mpa[] mpa = new Mpa[0];
+
+    @PostConstruct
+    public void load() {
+        List<Genre> genreList = jdbcTemplate.query("select id, name from genres order by id",
+                (rs, rowNum) -> new Genre(rs.getInt("id"), rs.getString("name")));
+        List<Mpa> mpaList = jdbcTemplate.query("select id, name from mpa order by id",
+                (rs, rowNum) -> new Mpa(rs.getInt("id"), rs.getString("name")));
+        Genre[] loadedGenres = new Genre[genreList.isEmpty() ? 0 : genreList.get(genreList.size() - 1).getId() + 1];
+        genreList.forEach(genre -> loadedGenres[genre.getId()] = genre);
+        Mpa[] loadedMpa = new Mpa[mpaList.isEmpty() ? 0 : mpaList.get(mpaList.size() - 1).getId() + 1];
+        mpaList.forEach(rating -> loadedMpa[rating.getId()] = rating);
+        genres = loadedGenres;
+        mpa = loadedMpa;
+        log.info("Загружены справочники: жанров - {}, рейтингов - {}.", genreList.size(), mpaList.size());
+    }
+
+    public List<Genre> getGenres() {
+        return collect(genres);
+    }
+
+    public Optional<Genre> findGenre(int id) {
+        Genre[] current = genres;
+        return id >= 0 && id < current.length ? Optional.ofNullable(current[id]) : Optional.empty();
+    }
+
+    public Genre getGenre(int id) {
+        return findGenre(id).orElseGet(() -> new Genre(id, null));
+    }
+
+    public List<Mpa> getAllMpa() {
+        return collect(mpa);
+    }
+
+    public Optional<Mpa> findMpa(int id) {
+        Mpa[] current = mpa;
+        return id >= 0 && id < current.length ? Optional.ofNullable(current[id]) : Optional.empty();
+    }
+
+    public Mpa getMpa(int id) {
+        return findMpa(id).orElseGet(() -> new Mpa(id, null));
+    }
+
+    private static <T> List<T> collect(T[] byId) {
+        List<T> all = new ArrayList<>();
+        for (T item : byId) {
+            if (item != null) {
+                all.add(item);
+            }
+        }
+        return all;
+    }
+}
@@ -8,8 +8,12 @@ import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Component;
 import ru.yandex.practicum.filmorate.model.Director;
-import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.IdRegistry;
+import ru.yandex.practicum.filmorate.storage.film.FilmCache;
+import ru.yandex.practicum.filmorate.storage.search.FilmSearchIndex;
+import ru.yandex.practicum.filmorate.storage.search.SearchNormalizer;
 
+import javax.annotation.PostConstruct;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -20,17 +24,28 @@ import java.util.*;
 @RequiredArgsConstructor
 public class DirectorDbStorage implements DirectorStorage {
     private final JdbcTemplate jdbcTemplate;
+    private final FilmCache filmCache;
+    private final FilmSearchIndex filmSearchIndex;
+    private final IdRegistry directorIds = new IdRegistry();
+
+    @PostConstruct
+    public void loadIds() {
+        directorIds.replaceAll(jdbcTemplate.queryForList("select id from directors", Integer.class));
+    }
 
     @Override
     public Director add(Director director) {
-        final String sql = "insert into directors(name) values ?";
+        final String sql = "insert into directors(name, search_name) values (?, ?)";
         KeyHolder keyHolder = new GeneratedKeyHolder();
         jdbcTemplate.update(connection -> {
             PreparedStatement stmt = connection.prepareStatement(sql, new String[]{"id"});
             stmt.setString(1, director.getName());
+            stmt.setString(2, SearchNormalizer.normalize(director.getName()));
             return stmt;
         }, keyHolder);
         director.setId(keyHolder.getKeyAs(Integer.class));
+        directorIds.add(director.getId());
+        filmSearchIndex.putDirector(director);
         log.info("Режиссёр добавлен");
         return director;
     }
@@ -39,16 +54,22 @@ public class DirectorDbStorage implements DirectorStorage {
     public void remove(Integer id) {
         String sql = "delete from directors where id = ?";
         jdbcTemplate.update(sql, id);
+        directorIds.remove(id);
+        filmSearchIndex.removeDirector(id);
+        filmCache.invalidateAll();
         log.info("Режиссёр удалён");
     }
 
     @Override
     public Optional<Director> update(Director director) {
-        String sql = "update directors set name = ? where id = ?";
-        int updateCount = jdbcTemplate.update(sql, director.getName(), director.getId());
+        String sql = "update directors set name = ?, search_name = ? where id = ?";
+        int updateCount = jdbcTemplate.update(sql, director.getName(),
+                SearchNormalizer.normalize(director.getName()), director.getId());
         if (updateCount <= 0) {
             return Optional.empty();
         } else {
+            filmCache.invalidateAll();
+            filmSearchIndex.putDirector(director);
             log.info("Режиссёр изменён");
             return Optional.of(director);
         }
@@ -60,6 +81,16 @@ public class DirectorDbStorage implements DirectorStorage {
         return jdbcTemplate.query(sql, this::mapRowToDirector);
     }
 
+    @Override
+    public boolean exists(Integer id) {
+        return directorIds.contains(id);
+    }
+
+    @Override
+    public boolean existsAll(Collection<Integer> ids) {
+        return directorIds.containsAll(ids);
+    }
+
     @Override
     public Optional<Director> getById(int id) {
         try {
@@ -71,29 +102,6 @@ public class DirectorDbStorage implements DirectorStorage {
         }
     }
 
-    public void getDirectorForFilms(List<Film> films) {
-        Map<Integer, List<Director>> directors = new LinkedHashMap<>();
-        List<Integer> id = new ArrayList<>();
-        for (Film film : films) {
-            id.add(film.getId());
-        }
-        String inSql = String.join(",", Collections.nCopies(films.size(), "?"));
-        String sql = "select fd.film_id, d.* from film_directors fd " +
-                "join directors d on d.id = fd.director_id " +
-                "where fd.film_id in (%s)";
-        jdbcTemplate.query(String.format(sql, inSql), rs -> {
-            Integer filmId = rs.getInt("film_id");
-            directors.putIfAbsent(filmId, new ArrayList<>());
-            Director genre = new Director(rs.getInt("id"), rs.getString("name"));
-            directors.get(filmId).add(genre);
-        }, id.toArray());
-        for (Film film : films) {
-            if (directors.get(film.getId()) != null) {
-                film.setDirectors(directors.get(film.getId()));
-            }
-        }
-    }
-
     private Director mapRowToDirector(ResultSet resultSet, int rowNum) throws SQLException {
         return new Director(resultSet.getInt("id"),
                 resultSet.getString("name"));
@@ -2,6 +2,7 @@ package ru.yandex.practicum.filmorate.storage.director;
 
 import ru.yandex.practicum.filmorate.model.Director;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +16,8 @@ public interface DirectorStorage {
     List<Director> getAll();
 
     Optional<Director> getById(int id);
+
+    boolean exists(Integer id);
+
+    boolean existsAll(Collection<Integer> ids);
 }
@@ -0,0 +1,86 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class FilmCache {
+    private final Cache<Integer, Film> cache;
+
+    public FilmCache(@Value("${filmorate.film-cache.maximum-size:10000}") long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<Film> get(int id, Function<Integer, Film> loader) {
+        return Optional.ofNullable(cache.get(id, loader)).map(FilmCache::copyOf);
+    }
+
+    public Map<Integer, Film> getAll(Collection<Integer> ids) {
+        return cache.getAllPresent(ids).values().stream()
+                .collect(Collectors.toMap(Film::getId, FilmCache::copyOf));
+    }
+
+    public void put(Film film) {
+        cache.put(film.getId(), copyOf(film));
+    }
+
+    public void putAll(List<Film> films) {
+        films.forEach(this::put);
+    }
+
+    public void invalidate(int id) {
+        cache.invalidate(id);
+        afterCommit(() -> cache.invalidate(id));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        afterCommit(cache::invalidateAll);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Scheduled(fixedDelayString = "${filmorate.film-cache.stats-log-delay-ms:60000}")
+    public void logStats() {
+        CacheStats stats = cache.stats();
+        log.debug("Кэш фильмов: размер - {}, попаданий - {}, промахов - {}, доля попаданий - {}, вытеснено - {}.",
+                cache.estimatedSize(), stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private static Film copyOf(Film film) {
+        Film copy = new Film(film.getId(), film.getName(), film.getDescription(), film.getReleaseDate(),
+                film.getDuration(), film.getMpa());
+        copy.setGenres(film.getGenres() == null ? null : new ArrayList<>(film.getGenres()));
+        copy.setDirectors(film.getDirectors() == null ? null : new ArrayList<>(film.getDirectors()));
+        return copy;
+    }
+}
@@ -2,32 +2,51 @@ package ru.yandex.practicum.filmorate.storage.film;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataRetrievalFailureException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 import ru.yandex.practicum.filmorate.model.*;
-import ru.yandex.practicum.filmorate.storage.director.DirectorDbStorage;
-import ru.yandex.practicum.filmorate.storage.genre.GenreDbStorage;
+import ru.yandex.practicum.filmorate.storage.IdRegistry;
+import ru.yandex.practicum.filmorate.storage.ReferenceDataRegistry;
+import ru.yandex.practicum.filmorate.storage.search.FilmSearchIndex;
+import ru.yandex.practicum.filmorate.storage.search.ReviewSearchIndex;
+import ru.yandex.practicum.filmorate.storage.search.SearchNormalizer;
 
+import javax.annotation.PostConstruct;
 import java.sql.*;
 import java.sql.Date;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Component("filmDbStorage")
 @Slf4j
 @RequiredArgsConstructor
 public class FilmDbStorage implements FilmStorage {
+    private static final int STREAM_CHUNK_SIZE = 500;
     private final JdbcTemplate jdbcTemplate;
-    private final GenreDbStorage genreStorage;
-    private final DirectorDbStorage directorStorage;
+    private final FilmHydrator filmHydrator;
+    private final FilmCache filmCache;
+    private final ReferenceDataRegistry referenceData;
+    private final FilmSearchIndex filmSearchIndex;
+    private final ReviewSearchIndex reviewSearchIndex;
+    private final IdRegistry filmIds = new IdRegistry();
+
+    @PostConstruct
+    public void loadIds() {
+        filmIds.replaceAll(jdbcTemplate.queryForList("select id from films", Integer.class));
+    }
 
     @Override
     public Film add(Film film) {
-        final String sql = "insert into films(name, description, release_date, duration, mpa_id) values (?, ?, ?, ?, ?)";
+        final String sql = "insert into films(name, description, release_date, duration, mpa_id, search_name) " +
+                "values (?, ?, ?, ?, ?, ?)";
         KeyHolder keyHolder = new GeneratedKeyHolder();
         jdbcTemplate.update(connection -> {
             PreparedStatement stmt = connection.prepareStatement(sql, new String[]{"id"});
@@ -36,25 +55,91 @@ public class FilmDbStorage implements FilmStorage {
             stmt.setDate(3, Date.valueOf(film.getReleaseDate()));
             stmt.setLong(4, film.getDuration());
             stmt.setInt(5, film.getMpa().getId());
+            stmt.setString(6, SearchNormalizer.normalize(film.getName()));
             return stmt;
         }, keyHolder);
         film.setId(keyHolder.getKeyAs(Integer.class));
+        filmIds.add(film.getId());
         addGenre(film);
         addDirector(film);
+        filmSearchIndex.putFilm(film);
         log.info("Фильм добавлен");
         return film;
     }
 
+    @Override
+    @Transactional
+    public List<Film> addAll(List<Film> films) {
+        final String sql = "insert into films(name, description, release_date, duration, mpa_id, search_name) " +
+                "values (?, ?, ?, ?, ?, ?)";
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement stmt = connection.prepareStatement(sql, new String[]{"id"})) {
+                for (Film film : films) {
+                    stmt.setString(1, film.getName());
+                    stmt.setString(2, film.getDescription());
+                    stmt.setDate(3, Date.valueOf(film.getReleaseDate()));
+                    stmt.setLong(4, film.getDuration());
+                    stmt.setInt(5, film.getMpa().getId());
+                    stmt.setString(6, SearchNormalizer.normalize(film.getName()));
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                int keyCount = 0;
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        if (keyCount < films.size()) {
+                            films.get(keyCount).setId(keys.getInt(1));
+                        }
+                        keyCount++;
+                    }
+                }
+                if (keyCount != films.size()) {
+                    throw new DataRetrievalFailureException(String.format(
+                            "Получено %d сгенерированных id для %d добавленных фильмов.", keyCount, films.size()));
+                }
+            }
+            return null;
+        });
+        List<Object[]> genreRows = new ArrayList<>();
+        List<Object[]> directorRows = new ArrayList<>();
+        for (Film film : films) {
+            if (film.getGenres() != null) {
+                film.setGenres(film.getGenres().stream()
+                        .distinct()
+                        .collect(Collectors.toList()));
+                film.getGenres().forEach(genre -> genreRows.add(new Object[]{film.getId(), genre.getId()}));
+            }
+            if (film.getDirectors() != null) {
+                film.setDirectors(film.getDirectors().stream()
+                        .distinct()
+                        .collect(Collectors.toList()));
+                film.getDirectors().forEach(director -> directorRows.add(new Object[]{film.getId(), director.getId()}));
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into film_genres (film_id, genre_id) values(?,?)", genreRows);
+        jdbcTemplate.batchUpdate("insert into film_directors (film_id, director_id) values(?,?)", directorRows);
+        films.forEach(film -> filmIds.add(film.getId()));
+        filmSearchIndex.putFilms(films);
+        log.info("Добавлено фильмов - {}", films.size());
+        return films;
+    }
+
     @Override
     public void remove(Integer id) {
         String sql = "delete from films where id = ?";
         jdbcTemplate.update(sql, id);
+        filmCache.invalidate(id);
+        filmIds.remove(id);
+        filmSearchIndex.removeFilm(id);
+        reviewSearchIndex.removeFilmReviews(id);
         log.info("Фильм удалён");
     }
 
     @Override
+    @Transactional
     public Optional<Film> update(Film film) {
-        String sql = "update films set name = ?, description = ?, release_date = ?, duration = ?, mpa_id = ? where id = ?";
+        String sql = "update films set name = ?, description = ?, release_date = ?, duration = ?, mpa_id = ?, " +
+                "search_name = ? where id = ?";
         int updateCount = jdbcTemplate.update(connection -> {
             PreparedStatement stmt = connection.prepareStatement(sql, new String[]{"id"});
             stmt.setString(1, film.getName());
@@ -62,14 +147,17 @@ public class FilmDbStorage implements FilmStorage {
             stmt.setDate(3, Date.valueOf(film.getReleaseDate()));
             stmt.setLong(4, film.getDuration());
             stmt.setInt(5, film.getMpa().getId());
-            stmt.setInt(6, film.getId());
+            stmt.setString(6, SearchNormalizer.normalize(film.getName()));
+            stmt.setInt(7, film.getId());
             return stmt;
         });
         if (updateCount <= 0) {
             return Optional.empty();
         } else {
-            addGenre(film);
-            addDirector(film);
+            updateGenres(film);
+            updateDirectors(film);
+            filmCache.invalidate(film.getId());
+            filmSearchIndex.putFilm(film);
             log.info("Фильм изменён");
             return Optional.of(film);
         }
@@ -77,31 +165,98 @@ public class FilmDbStorage implements FilmStorage {
 
     @Override
     public List<Film> getAll() {
-        String sql = "select f.*, r.name mpa_name from films f " +
-                "join mpa r on f.mpa_id = r.id";
+        String sql = "select * from films";
         List<Film> all = jdbcTemplate.query(sql, this::mapRowToFilm);
-        genreStorage.getGenresForFilms(all);
-        directorStorage.getDirectorForFilms(all);
+        filmHydrator.hydrate(all);
         return all;
     }
 
+    @Override
+    public void streamAll(Consumer<Film> consumer) {
+        String sql = "select * from films";
+        List<Film> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement stmt = connection.prepareStatement(sql);
+            stmt.setFetchSize(STREAM_CHUNK_SIZE);
+            return stmt;
+        }, rs -> {
+            chunk.add(mapRowToFilm(rs, rs.getRow()));
+            if (chunk.size() == STREAM_CHUNK_SIZE) {
+                flushChunk(chunk, consumer);
+            }
+        });
+        flushChunk(chunk, consumer);
+    }
+
+    @Override
+    public List<Film> getPage(Integer afterId, int limit) {
+        String sql = "select f.* from films f " +
+                "where f.id > ? " +
+                "order by f.id " +
+                "limit ?";
+        List<Film> page = jdbcTemplate.query(sql, this::mapRowToFilm, afterId == null ? 0 : afterId, limit);
+        filmHydrator.hydrate(page);
+        return page;
+    }
+
+    @Override
+    public boolean exists(Integer id) {
+        return filmIds.contains(id);
+    }
+
+    @Override
+    public boolean existsAll(Collection<Integer> ids) {
+        return filmIds.containsAll(ids);
+    }
+
+    @Override
+    public List<Film> getByIds(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Integer, Film> byId = new HashMap<>(filmCache.getAll(ids));
+        Object[] missing = ids.stream()
+                .filter(id -> !byId.containsKey(id))
+                .distinct()
+                .toArray();
+        if (missing.length > 0) {
+            String sql = "select f.* from films f " +
+                    "where f.id = any(?)";
+            List<Film> films = jdbcTemplate.query(connection -> {
+                PreparedStatement stmt = connection.prepareStatement(sql);
+                stmt.setArray(1, connection.createArrayOf("INTEGER", missing));
+                return stmt;
+            }, this::mapRowToFilm);
+            filmHydrator.hydrate(films);
+            filmCache.putAll(films);
+            films.forEach(film -> byId.put(film.getId(), film));
+        }
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public Optional<Film> getById(int id) {
+        return filmCache.get(id, this::loadById);
+    }
+
+    private Film loadById(int id) {
         try {
-            String sql = "select f.*, r.name mpa_name from films f " +
-                    "join mpa r on f.mpa_id = r.id " +
+            String sql = "select f.* from films f " +
                     "where f.id = ?";
             List<Film> film = List.of(Objects.requireNonNull(jdbcTemplate.queryForObject(sql, this::mapRowToFilm, id)));
-            genreStorage.getGenresForFilms(film);
-            directorStorage.getDirectorForFilms(film);
-            return Optional.ofNullable(film.get(0));
+            filmHydrator.hydrate(film);
+            return film.get(0);
         } catch (EmptyResultDataAccessException e) {
-            return Optional.empty();
+            return null;
         }
     }
 
     @Override
-    public void addLike(Integer filmId, Integer userId) {
+    @Transactional
+    public boolean addLike(Integer filmId, Integer userId) {
         String sql = "select count(*) from film_likes where film_id = ? and user_id = ?";
         int result = jdbcTemplate.queryForObject(sql, Integer.class, filmId, userId);
         if (result == 0) {
@@ -118,135 +273,135 @@ public class FilmDbStorage implements FilmStorage {
                             return 1;
                         }
                     });
+            jdbcTemplate.update("update films set likes_count = likes_count + 1 where id = ?", filmId);
             log.info("Лайк от пользователя - {}.", userId);
+            return true;
         }
+        return false;
     }
 
     @Override
-    public void removeLike(Integer filmId, Integer userId) {
-        String sql = "delete from film_likes where film_id = ?";
-        jdbcTemplate.update(sql, filmId);
+    @Transactional
+    public boolean removeLike(Integer filmId, Integer userId) {
+        String sql = "delete from film_likes where film_id = ? and user_id = ?";
+        int removed = jdbcTemplate.update(sql, filmId, userId);
+        if (removed > 0) {
+            jdbcTemplate.update("update films set likes_count = likes_count - ? where id = ?", removed, filmId);
+        }
         log.info("Лайк от пользователя - {} удалён.", userId);
+        return removed > 0;
+    }
+
+    @Override
+    public List<Integer> getLikedFilmIds(int userId) {
+        String sql = "select film_id from film_likes where user_id = ?";
+        return jdbcTemplate.queryForList(sql, Integer.class, userId);
     }
 
 
     @Override
     public List<Film> getPopularFilmsOnGenreAndYear(Integer count, Integer genreId, Integer year) {
-        String sql = "select f.*, r.name mpa_name, count(fl.film_id) likes_count " +
-                "from films f " +
-                "left join film_likes fl on f.id = fl.film_id " +
-                "left join mpa r on f.mpa_id = r.id " +
-                "left join film_genres gen on f.ID  = gen.film_id " +
-                "where (? IS NULL OR extract(year from f.release_date) = ?) and (? IS NULL OR gen.genre_id = ?) " +
-                "group by f.id " +
-                "order by likes_count " +
-                "desc LIMIT ?";
+        String sql = "select f.* from films f " +
+                "where (? IS NULL OR extract(year from f.release_date) = ?) " +
+                "and (? IS NULL OR exists (select 1 from film_genres gen where gen.film_id = f.id and gen.genre_id = ?)) " +
+                "order by f.likes_count desc, f.id " +
+                "LIMIT ?";
         List<Film> all = jdbcTemplate.query(sql, this::mapRowToFilm, year, year, genreId, genreId, count);
-        genreStorage.getGenresForFilms(all);
-        directorStorage.getDirectorForFilms(all);
+        filmHydrator.hydrate(all);
         return all;
     }
 
     @Override
     public List<Film> searchFilmByTitle(String title) {
-        String sql = "select f.*, r.name mpa_name, count(fl.film_id) likes_count from films f " +
-                "left join film_likes fl on f.id = fl.film_id " +
-                "left join mpa r on f.mpa_id = r.id " +
-                "LEFT JOIN FILM_DIRECTORS fd ON fd.FILM_ID = f.ID " +
-                "LEFT JOIN DIRECTORS d ON d.ID = fd.DIRECTOR_ID " +
-                "WHERE (lower(f.NAME) LIKE lower(?)) " +
-                "group by f.id order by likes_count desc";
-        List<Film> all = jdbcTemplate.query(sql, this::mapRowToFilm, "%" + title + "%");
-        genreStorage.getGenresForFilms(all);
-        directorStorage.getDirectorForFilms(all);
+        String sql = "select f.* from films f " +
+                "WHERE f.search_name LIKE ? || '%' ESCAPE '\\' " +
+                "order by f.likes_count desc, f.id";
+        List<Film> all = jdbcTemplate.query(sql, this::mapRowToFilm, prefixPattern(title));
+        filmHydrator.hydrate(all);
         return all;
     }
 
     @Override
     public List<Film> searchFilmByDirectorName(String name) {
-        String sql = "select f.*, r.name mpa_name, count(fl.film_id) likes_count from films f " +
-                "left join film_likes fl on f.id = fl.film_id " +
-                "left join mpa r on f.mpa_id = r.id " +
-                "LEFT JOIN FILM_DIRECTORS fd ON fd.FILM_ID = f.ID " +
-                "LEFT JOIN DIRECTORS d ON d.ID = fd.DIRECTOR_ID " +
-                "WHERE (lower(d.NAME) LIKE lower(?)) " +
-                "group by f.id order by likes_count desc";
-        List<Film> all = jdbcTemplate.query(sql, this::mapRowToFilm, "%" + name + "%");
-        genreStorage.getGenresForFilms(all);
-        directorStorage.getDirectorForFilms(all);
+        String sql = "select f.* from films f " +
+                "WHERE exists (select 1 from FILM_DIRECTORS fd JOIN DIRECTORS d ON d.ID = fd.DIRECTOR_ID " +
+                "where fd.FILM_ID = f.ID and d.search_name LIKE ? || '%' ESCAPE '\\') " +
+                "order by f.likes_count desc, f.id";
+        List<Film> all = jdbcTemplate.query(sql, this::mapRowToFilm, prefixPattern(name));
+        filmHydrator.hydrate(all);
         return all;
     }
 
     @Override
     public List<Film> searchFilmByDirectorNameAndTitleFilm(String dirfilname) {
-        String sql = "select f.*, r.name mpa_name, count(fl.film_id) likes_count from films f " +
-                "left join film_likes fl on f.id = fl.film_id " +
-                "left join mpa r on f.mpa_id = r.id " +
-                "LEFT JOIN FILM_DIRECTORS fd ON fd.FILM_ID = f.ID " +
-                "LEFT JOIN DIRECTORS d ON d.ID = fd.DIRECTOR_ID " +
-                "WHERE (lower(f.NAME) LIKE lower(?)) OR (lower(d.NAME) LIKE lower(?)) " +
-                "group by f.id order by likes_count DESC";
-        List<Film> all = jdbcTemplate.query(sql, this::mapRowToFilm, "%" + dirfilname + "%", "%" + dirfilname + "%");
-        genreStorage.getGenresForFilms(all);
-        directorStorage.getDirectorForFilms(all);
+        String sql = "select f.* from films f " +
+                "WHERE f.search_name LIKE ? || '%' ESCAPE '\\' " +
+                "OR exists (select 1 from FILM_DIRECTORS fd JOIN DIRECTORS d ON d.ID = fd.DIRECTOR_ID " +
+                "where fd.FILM_ID = f.ID and d.search_name LIKE ? || '%' ESCAPE '\\') " +
+                "order by f.likes_count desc, f.id";
+        String pattern = prefixPattern(dirfilname);
+        List<Film> all = jdbcTemplate.query(sql, this::mapRowToFilm, pattern, pattern);
+        filmHydrator.hydrate(all);
         return all;
     }
 
-
     @Override
     public List<Film> getFilmsByYear(Integer id) {
-        String sql = "select f.*, r.name mpa_name from films f " +
+        String sql = "select f.* from films f " +
                 "left join film_directors fd on f.id = fd.film_id " +
-                "left join mpa r on f.mpa_id = r.id " +
                 "where fd.director_id = ? " +
                 "group by f.id order by f.release_date";
         List<Film> all = jdbcTemplate.query(sql, this::mapRowToFilm, id);
-        genreStorage.getGenresForFilms(all);
-        directorStorage.getDirectorForFilms(all);
+        filmHydrator.hydrate(all);
         return all;
     }
 
     @Override
     public List<Film> getFilmsByLikes(Integer id) {
-        String sql = "select f.*, r.name mpa_name, count(fl.film_id) likes_count from films f " +
-                "left join film_likes fl on f.id = fl.film_id " +
-                "left join film_directors fd on f.id = fd.film_id " +
-                "left join mpa r on f.mpa_id = r.id " +
+        String sql = "select f.* from films f " +
+                "join film_directors fd on f.id = fd.film_id " +
                 "where fd.director_id = ? " +
-                "group by f.id order by likes_count desc";
+                "order by f.likes_count desc, f.id";
         List<Film> all = jdbcTemplate.query(sql, this::mapRowToFilm, id);
-        genreStorage.getGenresForFilms(all);
-        directorStorage.getDirectorForFilms(all);
+        filmHydrator.hydrate(all);
         return all;
     }
 
+    private void flushChunk(List<Film> chunk, Consumer<Film> consumer) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        filmHydrator.hydrate(chunk);
+        chunk.forEach(consumer);
+        chunk.clear();
+    }
+
+    private String prefixPattern(String query) {
+        return SearchNormalizer.normalize(query)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
     private Film mapRowToFilm(ResultSet resultSet, int rowNum) throws SQLException {
         return new Film(resultSet.getInt("id"),
                 resultSet.getString("name"),
                 resultSet.getString("description"),
                 resultSet.getDate("release_date").toLocalDate(),
                 resultSet.getLong("duration"),
-                new Mpa(resultSet.getInt("mpa_id"), resultSet.getString("mpa_name")));
+                referenceData.getMpa(resultSet.getInt("mpa_id")));
     }
 
     @Override
     public List<Film> getCommonFilms(Integer id, Integer otherId) {
-        String sql = "SELECT f.*,r.name mpa_name, count(fl.film_id) likes_count FROM FILMS f " +
-                "LEFT JOIN FILM_LIKES fl ON fl.FILM_ID = f.ID " +
-                "LEFT JOIN USERS u ON u.ID = fl.USER_ID " +
-                "LEFT JOIN FRIENDS f2 ON u.ID = f2.USER_ID " +
-                "LEFT JOIN  MPA r on f.mpa_id = r.id " +
-                "WHERE fl.FILM_ID IN ( " +
-                "SELECT fl.FILM_ID FROM users u " +
-                "LEFT JOIN FILM_LIKES fl2 ON fl2.USER_ID = u.ID " +
-                "WHERE u.id = ? AND fl2.FILM_ID IN ( " +
-                "SELECT fl.FILM_ID FROM users u " +
-                "LEFT JOIN FILM_LIKES fl2 ON fl2.USER_ID = u.ID " +
-                "WHERE u.id = ?)) " +
-                "GROUP BY f.id " +
-                "ORDER BY likes_count";
+        String sql = "select f.* from films f " +
+                "where f.id in (select fl.film_id from film_likes fl where fl.user_id = ?) " +
+                "and f.id in (select fl.film_id from film_likes fl where fl.user_id = ?) " +
+                "order by f.likes_count desc, f.id";
         log.info("Получен список общих фильмов пользователя {} и {}", id, otherId);
-        return jdbcTemplate.query(sql, this::mapRowToFilm, id, otherId);
+        List<Film> all = jdbcTemplate.query(sql, this::mapRowToFilm, id, otherId);
+        filmHydrator.hydrate(all);
+        return all;
     }
 
     private void addGenre(Film film) {
@@ -274,36 +429,22 @@ public class FilmDbStorage implements FilmStorage {
     }
 
     @Override
-
-    public Map<User, HashMap<Film, Double>> getRecommendationData(List<User> users, List<Film> films) {
-
-        Map<User, HashMap<Film, Double>> inputData = new HashMap<>();
-        for (User user : users) {
-            List<Film> filmsUsers = getLikes(user.getId(), films);
-            HashMap<Film, Double> data = new HashMap<>();
-            for (Film film : filmsUsers) {
-                data.put(film, 1.0);
-            }
-            inputData.put(user, data);
-        }
-        return inputData;
+    public LikeMatrix loadLikeMatrix() {
+        String sql = "select user_id, film_id from film_likes order by user_id, film_id";
+        LikeMatrix.Builder builder = new LikeMatrix.Builder();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement stmt = connection.prepareStatement(sql);
+            stmt.setFetchSize(STREAM_CHUNK_SIZE);
+            return stmt;
+        }, rs -> {
+            builder.add(rs.getInt("user_id"), rs.getInt("film_id"));
+        });
+        return builder.build();
     }
 
-    public List<Film> getLikes(int userId, List<Film> films) {
-
-        String query = "SELECT film_id FROM film_likes WHERE user_id = ?";
-        List<Film> likedFilms = new ArrayList<>();
-        List<Map<String, Object>> resultList = jdbcTemplate.queryForList(query, userId);
-        for (Map<String, Object> result : resultList) {
-            int filmId = (Integer) result.get("film_id");
-            for (Film film : films) {
-                if (film.getId() == filmId) {
-                    likedFilms.add(film);
-                    break;
-                }
-            }
-        }
-        return likedFilms;
+    @Override
+    public long getLikeCount() {
+        return jdbcTemplate.queryForObject("select count(*) from film_likes", Long.class);
     }
 
     private void addDirector(Film film) {
@@ -330,4 +471,51 @@ public class FilmDbStorage implements FilmStorage {
         }
 
     }
+
+    private void updateGenres(Film film) {
+        if (film.getGenres() != null) {
+            film.setGenres(film.getGenres().stream()
+                    .distinct()
+                    .collect(Collectors.toList()));
+            Set<Integer> genreIds = film.getGenres().stream()
+                    .map(Genre::getId)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            syncAssociations("film_genres", "genre_id", film.getId(), genreIds);
+        }
+    }
+
+    private void updateDirectors(Film film) {
+        if (film.getDirectors() != null) {
+            film.setDirectors(film.getDirectors().stream()
+                    .distinct()
+                    .collect(Collectors.toList()));
+            Set<Integer> directorIds = film.getDirectors().stream()
+                    .map(Director::getId)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            syncAssociations("film_directors", "director_id", film.getId(), directorIds);
+        }
+    }
+
+    private void syncAssociations(String table, String column, int filmId, Set<Integer> targetIds) {
+        Set<Integer> currentIds = new HashSet<>(jdbcTemplate.queryForList(
+                "select " + column + " from " + table + " where film_id = ?", Integer.class, filmId));
+        if (currentIds.equals(targetIds)) {
+            return;
+        }
+        List<Object[]> removed = currentIds.stream()
+                .filter(id -> !targetIds.contains(id))
+                .map(id -> new Object[]{filmId, id})
+                .collect(Collectors.toList());
+        List<Object[]> added = targetIds.stream()
+                .filter(id -> !currentIds.contains(id))
+                .map(id -> new Object[]{filmId, id})
+                .collect(Collectors.toList());
+        if (!removed.isEmpty()) {
+            jdbcTemplate.batchUpdate("delete from " + table + " where film_id = ? and " + column + " = ?", removed);
+        }
+        if (!added.isEmpty()) {
+            jdbcTemplate.batchUpdate("insert into " + table + " (film_id, " + column + ") values(?,?)", added);
+        }
+        log.info("Связи фильма {} в {} обновлены: удалено - {}, добавлено - {}.", filmId, table, removed.size(), added.size());
+    }
 }
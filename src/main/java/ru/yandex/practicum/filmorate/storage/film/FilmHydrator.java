@@ -0,0 +1,66 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Director;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.storage.ReferenceDataRegistry;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+public class FilmHydrator {
+    private static final int CHUNK_SIZE = 1000;
+    private static final String SQL = "select fg.film_id, 'G' kind, fg.genre_id id, cast(null as varchar) name " +
+            "from film_genres fg " +
+            "where fg.film_id = any(?) " +
+            "union all " +
+            "select fd.film_id, 'D' kind, d.id, d.name from film_directors fd " +
+            "join directors d on d.id = fd.director_id " +
+            "where fd.film_id = any(?) " +
+            "order by 2, 3";
+    private final JdbcTemplate jdbcTemplate;
+    private final ReferenceDataRegistry referenceData;
+
+    public void hydrate(List<Film> films) {
+        for (int from = 0; from < films.size(); from += CHUNK_SIZE) {
+            hydrateChunk(films.subList(from, Math.min(from + CHUNK_SIZE, films.size())));
+        }
+    }
+
+    private void hydrateChunk(List<Film> films) {
+        Map<Integer, List<Genre>> genres = new HashMap<>();
+        Map<Integer, List<Director>> directors = new HashMap<>();
+        Integer[] ids = films.stream()
+                .map(Film::getId)
+                .toArray(Integer[]::new);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement stmt = connection.prepareStatement(SQL);
+            Array idArray = connection.createArrayOf("INTEGER", ids);
+            stmt.setArray(1, idArray);
+            stmt.setArray(2, idArray);
+            return stmt;
+        }, rs -> {
+            Integer filmId = rs.getInt("film_id");
+            if ("G".equals(rs.getString("kind"))) {
+                genres.computeIfAbsent(filmId, id -> new ArrayList<>())
+                        .add(referenceData.getGenre(rs.getInt("id")));
+            } else {
+                directors.computeIfAbsent(filmId, id -> new ArrayList<>())
+                        .add(new Director(rs.getInt("id"), rs.getString("name")));
+            }
+        });
+        for (Film film : films) {
+            film.setGenres(genres.getOrDefault(film.getId(), new ArrayList<>()));
+            film.setDirectors(directors.getOrDefault(film.getId(), new ArrayList<>()));
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FilmLikesReconciler {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Scheduled(fixedDelayString = "${filmorate.likes.reconcile-delay-ms:3600000}")
+    public int reconcile() {
+        String sql = "update films f set likes_count = (select count(*) from film_likes fl where fl.film_id = f.id) " +
+                "where likes_count <> (select count(*) from film_likes fl where fl.film_id = f.id)";
+        int fixed = jdbcTemplate.update(sql);
+        if (fixed > 0) {
+            log.warn("Количество лайков пересчитано у {} фильмов.", fixed);
+        }
+        return fixed;
+    }
+}
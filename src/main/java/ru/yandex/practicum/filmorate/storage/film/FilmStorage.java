@@ -2,35 +2,48 @@ package ru.yandex.practicum.filmorate.storage.film;
 
 
 import ru.yandex.practicum.filmorate.model.Film;
-import ru.yandex.practicum.filmorate.model.User;
 
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface FilmStorage {
     Film add(Film film);
 
+    List<Film> addAll(List<Film> films);
+
     void remove(Integer id);
 
     Optional<Film> update(Film film);
 
     List<Film> getAll();
 
+    void streamAll(Consumer<Film> consumer);
+
+    List<Film> getPage(Integer afterId, int limit);
+
     Optional<Film> getById(int id);
 
-    void addLike(Integer filmId, Integer userId);
+    boolean exists(Integer id);
+
+    boolean existsAll(Collection<Integer> ids);
+
+    List<Film> getByIds(List<Integer> ids);
+
+    boolean addLike(Integer filmId, Integer userId);
+
+    boolean removeLike(Integer filmId, Integer userId);
 
-    void removeLike(Integer filmId, Integer userId);
+    List<Integer> getLikedFilmIds(int userId);
 
     List<Film> getPopularFilmsOnGenreAndYear(Integer count, Integer genreId, Integer year);
 
     List<Film> getCommonFilms(Integer id, Integer otherId);
 
-    List<Film> getLikes(int userId, List<Film> films);
+    LikeMatrix loadLikeMatrix();
 
-    Map<User, HashMap<Film, Double>> getRecommendationData(List<User> users, List<Film> films);
+    long getLikeCount();
 
     List<Film> getFilmsByYear(Integer count);
 
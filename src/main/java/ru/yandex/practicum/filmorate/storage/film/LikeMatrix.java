@@ -0,0 +1,87 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import java.util.Arrays;
+
+public final class LikeMatrix {
+    public static final LikeMatrix EMPTY = new LikeMatrix(new int[0], new int[0], new int[1], new int[0]);
+
+    private final int[] userIds;
+    private final int[] filmIds;
+    private final int[] userOffsets;
+    private final int[] filmIndexes;
+
+    private LikeMatrix(int[] userIds, int[] filmIds, int[] userOffsets, int[] filmIndexes) {
+        this.userIds = userIds;
+        this.filmIds = filmIds;
+        this.userOffsets = userOffsets;
+        this.filmIndexes = filmIndexes;
+    }
+
+    public int[] getUserIds() {
+        return userIds;
+    }
+
+    public int[] getFilmIds() {
+        return filmIds;
+    }
+
+    public int[] getUserOffsets() {
+        return userOffsets;
+    }
+
+    public int[] getFilmIndexes() {
+        return filmIndexes;
+    }
+
+    public int getLikeCount() {
+        return filmIndexes.length;
+    }
+
+    public static class Builder {
+        private int[] users = new int[1024];
+        private int[] films = new int[1024];
+        private int size;
+
+        public void add(int userId, int filmId) {
+            if (size > 0 && users[size - 1] > userId) {
+                throw new IllegalArgumentException("Лайки должны быть упорядочены по пользователю.");
+            }
+            if (size == users.length) {
+                users = Arrays.copyOf(users, size * 2);
+                films = Arrays.copyOf(films, size * 2);
+            }
+            users[size] = userId;
+            films[size] = filmId;
+            size++;
+        }
+
+        public LikeMatrix build() {
+            int[] filmIds = Arrays.stream(films, 0, size)
+                    .distinct()
+                    .sorted()
+                    .toArray();
+            int userCount = 0;
+            for (int i = 0; i < size; i++) {
+                if (i == 0 || users[i] != users[i - 1]) {
+                    userCount++;
+                }
+            }
+            int[] userIds = new int[userCount];
+            int[] userOffsets = new int[userCount + 1];
+            int[] filmIndexes = new int[size];
+            int u = -1;
+            for (int i = 0; i < size; i++) {
+                if (i == 0 || users[i] != users[i - 1]) {
+                    userIds[++u] = users[i];
+                    userOffsets[u] = i;
+                }
+                filmIndexes[i] = Arrays.binarySearch(filmIds, films[i]);
+            }
+            userOffsets[userCount] = size;
+            for (u = 0; u < userCount; u++) {
+                Arrays.sort(filmIndexes, userOffsets[u], userOffsets[u + 1]);
+            }
+            return new LikeMatrix(userIds, filmIds, userOffsets, filmIndexes);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PopularFilmIndex {
+    private static final int ALL = -1;
+    private static final Comparator<Rank> BY_LIKES = Comparator.comparingInt((Rank rank) -> -rank.likes)
+            .thenComparingInt(rank -> rank.filmId);
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, NavigableSet<Rank>> buckets = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    public void rebuild() {
+        Map<Integer, Integer> years = new HashMap<>();
+        Map<Integer, Integer> likes = new HashMap<>();
+        Map<Integer, Set<Integer>> genres = new HashMap<>();
+        jdbcTemplate.query("select f.id, extract(year from f.release_date) release_year, count(fl.user_id) likes " +
+                "from films f left join film_likes fl on fl.film_id = f.id group by f.id", rs -> {
+            years.put(rs.getInt("id"), rs.getInt("release_year"));
+            likes.put(rs.getInt("id"), rs.getInt("likes"));
+        });
+        jdbcTemplate.query("select film_id, genre_id from film_genres", rs -> {
+            genres.computeIfAbsent(rs.getInt("film_id"), id -> new HashSet<>()).add(rs.getInt("genre_id"));
+        });
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            buckets.clear();
+            for (Map.Entry<Integer, Integer> film : years.entrySet()) {
+                int filmId = film.getKey();
+                Entry entry = new Entry(film.getValue(), toArray(genres.get(filmId)), likes.get(filmId));
+                entries.put(filmId, entry);
+                addToBuckets(filmId, entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Индекс популярных фильмов построен, фильмов - {}.", entries.size());
+    }
+
+    public void putFilm(Film film) {
+        lock.writeLock().lock();
+        try {
+            Entry old = entries.get(film.getId());
+            int[] genreIds = film.getGenres() == null && old != null ? old.genreIds : toArray(genreIdsOf(film));
+            Entry entry = new Entry(film.getReleaseDate().getYear(), genreIds, old == null ? 0 : old.likes);
+            replace(film.getId(), old, entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeFilm(int filmId) {
+        lock.writeLock().lock();
+        try {
+            Entry old = entries.remove(filmId);
+            if (old != null) {
+                removeFromBuckets(filmId, old);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void changeLikes(int filmId, int delta) {
+        lock.writeLock().lock();
+        try {
+            Entry old = entries.get(filmId);
+            if (old != null) {
+                replace(filmId, old, new Entry(old.year, old.genreIds, old.likes + delta));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int getLikes(int filmId) {
+        Entry entry = entries.get(filmId);
+        return entry == null ? 0 : entry.likes;
+    }
+
+    public List<Integer> getTop(int count, Integer genreId, Integer year) {
+        List<Integer> top = new ArrayList<>(Math.max(count, 0));
+        lock.readLock().lock();
+        try {
+            NavigableSet<Rank> bucket = buckets.get(key(genreId == null ? ALL : genreId, year == null ? ALL : year));
+            if (bucket == null) {
+                return top;
+            }
+            for (Rank rank : bucket) {
+                if (top.size() >= count) {
+                    break;
+                }
+                top.add(rank.filmId);
+            }
+            return top;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void replace(int filmId, Entry old, Entry entry) {
+        if (old != null) {
+            removeFromBuckets(filmId, old);
+        }
+        entries.put(filmId, entry);
+        addToBuckets(filmId, entry);
+    }
+
+    private void addToBuckets(int filmId, Entry entry) {
+        Rank rank = new Rank(filmId, entry.likes);
+        for (long key : keys(entry)) {
+            buckets.computeIfAbsent(key, k -> new TreeSet<>(BY_LIKES)).add(rank);
+        }
+    }
+
+    private void removeFromBuckets(int filmId, Entry entry) {
+        Rank rank = new Rank(filmId, entry.likes);
+        for (long key : keys(entry)) {
+            NavigableSet<Rank> bucket = buckets.get(key);
+            if (bucket != null) {
+                bucket.remove(rank);
+            }
+        }
+    }
+
+    private static long[] keys(Entry entry) {
+        long[] keys = new long[2 + entry.genreIds.length * 2];
+        keys[0] = key(ALL, ALL);
+        keys[1] = key(ALL, entry.year);
+        for (int i = 0; i < entry.genreIds.length; i++) {
+            keys[2 + i * 2] = key(entry.genreIds[i], ALL);
+            keys[3 + i * 2] = key(entry.genreIds[i], entry.year);
+        }
+        return keys;
+    }
+
+    private static long key(int genreId, int year) {
+        return ((long) genreId << 32) | (year & 0xffffffffL);
+    }
+
+    private static Set<Integer> genreIdsOf(Film film) {
+        Set<Integer> ids = new HashSet<>();
+        if (film.getGenres() != null) {
+            for (Genre genre : film.getGenres()) {
+                ids.add(genre.getId());
+            }
+        }
+        return ids;
+    }
+
+    private static int[] toArray(Set<Integer> ids) {
+        if (ids == null) {
+            return new int[0];
+        }
+        return ids.stream()
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static final class Entry {
+        private final int year;
+        private final int[] genreIds;
+        private final int likes;
+
+        private Entry(int year, int[] genreIds, int likes) {
+            this.year = year;
+            this.genreIds = genreIds;
+            this.likes = likes;
+        }
+    }
+
+    private static final class Rank {
+        private final int filmId;
+        private final int likes;
+
+        private Rank(int filmId, int likes) {
+            this.filmId = filmId;
+            this.likes = likes;
+        }
+    }
+}
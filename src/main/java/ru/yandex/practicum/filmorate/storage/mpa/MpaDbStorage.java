@@ -2,13 +2,10 @@ package ru.yandex.practicum.filmorate.storage.mpa;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.dao.EmptyResultDataAccessException;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.storage.ReferenceDataRegistry;
 
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,28 +13,17 @@ import java.util.Optional;
 @Slf4j
 @RequiredArgsConstructor
 public class MpaDbStorage implements MpaStorage {
-    private final JdbcTemplate jdbcTemplate;
+    private final ReferenceDataRegistry referenceData;
 
     @Override
     public List<Mpa> getAll() {
-        String sql = "select * from mpa";
         log.info("Получение списка рейтинга.");
-        return jdbcTemplate.query(sql, this::mapRowToMpa);
+        return referenceData.getAllMpa();
     }
 
     @Override
     public Optional<Mpa> getById(int id) {
-        try {
-            String sql = "select * from mpa where id = ?";
-            log.info("Получение рейтинга с id = {}.", id);
-            return Optional.ofNullable(jdbcTemplate.queryForObject(sql, this::mapRowToMpa, id));
-        } catch (EmptyResultDataAccessException e) {
-            return Optional.empty();
-        }
-    }
-
-    private Mpa mapRowToMpa(ResultSet resultSet, int rowNum) throws SQLException {
-        return new Mpa(resultSet.getInt("id"),
-                resultSet.getString("name"));
+        log.info("Получение рейтинга с id = {}.", id);
+        return referenceData.findMpa(id);
     }
 }
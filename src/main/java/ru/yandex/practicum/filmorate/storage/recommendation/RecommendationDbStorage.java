@@ -0,0 +1,49 @@
+package ru.yandex.practicum.filmorate.storage.recommendation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecommendationDbStorage implements RecommendationStorage {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<List<Integer>> getByUserId(int userId) {
+        Integer computed = jdbcTemplate.queryForObject(
+                "select count(*) from user_recommendation_sets where user_id = ?", Integer.class, userId);
+        if (computed == null || computed == 0) {
+            return Optional.empty();
+        }
+        String sql = "select film_id from user_recommendations where user_id = ? order by position";
+        return Optional.of(jdbcTemplate.queryForList(sql, Integer.class, userId));
+    }
+
+    @Override
+    @Transactional
+    public void save(int userId, List<Integer> filmIds) {
+        remove(userId);
+        jdbcTemplate.update("insert into user_recommendation_sets (user_id) values (?)", userId);
+        List<Object[]> rows = new ArrayList<>(filmIds.size());
+        for (int i = 0; i < filmIds.size(); i++) {
+            rows.add(new Object[]{userId, i, filmIds.get(i)});
+        }
+        jdbcTemplate.batchUpdate("insert into user_recommendations (user_id, position, film_id) values (?, ?, ?)",
+                rows);
+        log.debug("Сохранены рекомендации пользователя с id = {}: фильмов - {}.", userId, filmIds.size());
+    }
+
+    @Override
+    public void remove(int userId) {
+        jdbcTemplate.update("delete from user_recommendations where user_id = ?", userId);
+        jdbcTemplate.update("delete from user_recommendation_sets where user_id = ?", userId);
+    }
+}
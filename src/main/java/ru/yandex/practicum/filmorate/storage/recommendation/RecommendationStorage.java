@@ -0,0 +1,12 @@
+package ru.yandex.practicum.filmorate.storage.recommendation;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface RecommendationStorage {
+    Optional<List<Integer>> getByUserId(int userId);
+
+    void save(int userId, List<Integer> filmIds);
+
+    void remove(int userId);
+}
@@ -10,6 +10,7 @@ import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Component;
 import ru.yandex.practicum.filmorate.model.Review;
 import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.search.ReviewSearchIndex;
 import ru.yandex.practicum.filmorate.storage.user.UserStorage;
 import ru.yandex.practicum.filmorate.throwable.NotFoundException;
 import ru.yandex.practicum.filmorate.throwable.ValidationException;
@@ -17,8 +18,12 @@ import ru.yandex.practicum.filmorate.throwable.ValidationException;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Component
 @Slf4j
@@ -27,11 +32,16 @@ public class ReviewDbStorage implements ReviewStorage {
     private final JdbcTemplate jdbcTemplate;
     private final UserStorage userStorage;
     private final FilmStorage filmStorage;
+    private final ReviewSearchIndex reviewSearchIndex;
 
     @Override
     public Review addReview(Review review) {
-        userStorage.getById(review.getUserId()).orElseThrow(() -> new NotFoundException("Такого пользователя нет в списке зарегистрированных."));
-        filmStorage.getById(review.getFilmId()).orElseThrow(() -> new NotFoundException("Такого фильма нет в списке зарегистрированных."));
+        if (!userStorage.exists(review.getUserId())) {
+            throw new NotFoundException("Такого пользователя нет в списке зарегистрированных.");
+        }
+        if (!filmStorage.exists(review.getFilmId())) {
+            throw new NotFoundException("Такого фильма нет в списке зарегистрированных.");
+        }
         if (review.getIsPositive() == null) {
             throw new ValidationException("Некорректная характеристика отзыва");
         }
@@ -49,6 +59,7 @@ public class ReviewDbStorage implements ReviewStorage {
             return stmt;
         }, keyHolder);
         review.setReviewId(keyHolder.getKeyAs(Integer.class));
+        reviewSearchIndex.putReview(review);
         log.info("Отзыв добавлен");
 
         return review;
@@ -65,7 +76,9 @@ public class ReviewDbStorage implements ReviewStorage {
             return Optional.empty();
         } else {
             log.info("Отзыв изменен");
-            return getReviewById(review.getReviewId());
+            Optional<Review> updated = getReviewById(review.getReviewId());
+            updated.ifPresent(reviewSearchIndex::putReview);
+            return updated;
         }
     }
 
@@ -76,6 +89,7 @@ public class ReviewDbStorage implements ReviewStorage {
         if (updateCount <= 0) {
             throw new NotFoundException("Отзыва не существует. Удаление невозможно.");
         }
+        reviewSearchIndex.removeReview(reviewId);
         log.info("Отзыв удалён");
     }
 
@@ -83,11 +97,18 @@ public class ReviewDbStorage implements ReviewStorage {
     public void removeUsersReview(int id) {
         String sqlQuery = "DELETE FROM reviews WHERE user_id = ?";
         int updateCount = jdbcTemplate.update(sqlQuery, id);
+        reviewSearchIndex.removeUserReviews(id);
         if (updateCount <= 0) {
             log.warn("Не найдено отзывов, связанных с пользователем с ID {}", id);
         }
     }
 
+    @Override
+    public boolean exists(Integer id) {
+        String sqlQuery = "SELECT EXISTS (SELECT 1 FROM reviews WHERE id = ?)";
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(sqlQuery, Boolean.class, id));
+    }
+
     @Override
     public Optional<Review> getReviewById(Integer reviewId) {
         try {
@@ -99,6 +120,27 @@ public class ReviewDbStorage implements ReviewStorage {
         }
     }
 
+    @Override
+    public List<Review> getReviewsByIds(List<Integer> reviewIds) {
+        if (reviewIds.isEmpty()) {
+            return List.of();
+        }
+        String sqlQuery = "SELECT * FROM reviews WHERE id = ANY(?)";
+        Map<Integer, Review> found = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement stmt = connection.prepareStatement(sqlQuery);
+            stmt.setArray(1, connection.createArrayOf("INTEGER", reviewIds.toArray()));
+            return stmt;
+        }, rs -> {
+            Review review = mapRowToReview(rs, 0);
+            found.put(review.getReviewId(), review);
+        });
+        return reviewIds.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public List<Review> getReviewsForFilm(Integer filmId, Integer count) {
         if (filmId == 0) {
@@ -130,6 +172,7 @@ public class ReviewDbStorage implements ReviewStorage {
         }
         String sqlUsefulUpd = "UPDATE reviews SET useful = useful + 1 WHERE id = ?";
         jdbcTemplate.update(sqlUsefulUpd, reviewId);
+        reviewSearchIndex.changeUseful(reviewId, 1);
         log.info("Отзыв id={} получил лайк от пользователя id={}.", reviewId, userId);
     }
 
@@ -144,6 +187,7 @@ public class ReviewDbStorage implements ReviewStorage {
         }
         String sqlUsefulUpd = "UPDATE reviews SET useful = useful - 1 WHERE id = ?";
         jdbcTemplate.update(sqlUsefulUpd, reviewId);
+        reviewSearchIndex.changeUseful(reviewId, -1);
         log.info("Отзыв id={} получил дизлайк от пользователя id={}.", reviewId, userId);
     }
 
@@ -153,6 +197,7 @@ public class ReviewDbStorage implements ReviewStorage {
         deleteLike(reviewId, userId, sqLike);
         String sqlUsefulUpd = "UPDATE reviews SET useful = useful - 1 WHERE id = ?";
         jdbcTemplate.update(sqlUsefulUpd, reviewId);
+        reviewSearchIndex.changeUseful(reviewId, -1);
         log.info("Пользователь id={} отозвал лайк с отзыва id={}.", reviewId, userId);
     }
 
@@ -162,6 +207,7 @@ public class ReviewDbStorage implements ReviewStorage {
         deleteLike(reviewId, userId, sqlDislike);
         String sqlUsefulUpd = "UPDATE reviews SET useful = useful + 1 WHERE id = ?";
         jdbcTemplate.update(sqlUsefulUpd, reviewId);
+        reviewSearchIndex.changeUseful(reviewId, 1);
         log.info("Пользователь id={} отозвал дизлайк с отзыва id={}.", reviewId, userId);
     }
 
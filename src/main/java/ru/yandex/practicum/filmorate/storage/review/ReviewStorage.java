@@ -16,6 +16,10 @@ public interface ReviewStorage {
 
     Optional<Review> getReviewById(Integer reviewId);
 
+    List<Review> getReviewsByIds(List<Integer> reviewIds);
+
+    boolean exists(Integer id);
+
     List<Review> getReviewsForFilm(Integer filmId, Integer count);
 
     void likeReview(Integer reviewId, Integer userId);
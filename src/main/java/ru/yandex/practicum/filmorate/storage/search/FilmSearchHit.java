@@ -0,0 +1,31 @@
+package ru.yandex.practicum.filmorate.storage.search;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class FilmSearchHit {
+    public static final int FUZZY = 0;
+    public static final int SUBSTRING = 1;
+    public static final int PREFIX = 2;
+    public static final int EXACT = 3;
+    public static final double TITLE_WEIGHT = 2;
+    public static final double DIRECTOR_WEIGHT = 1;
+
+    int filmId;
+    int quality;
+    boolean title;
+
+    public double getRelevance() {
+        double match = quality > FUZZY ? 1 << quality : 1.0 / (1 + FUZZY - quality);
+        return match * (title ? TITLE_WEIGHT : DIRECTOR_WEIGHT);
+    }
+
+    public static FilmSearchHit best(FilmSearchHit first, FilmSearchHit second) {
+        return first.getRelevance() >= second.getRelevance() ? first : second;
+    }
+}
@@ -0,0 +1,455 @@
+package ru.yandex.practicum.filmorate.storage.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Completion;
+import ru.yandex.practicum.filmorate.model.Director;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class FilmSearchIndex {
+    private final JdbcTemplate jdbcTemplate;
+    private final long fuzzyBudgetNanos;
+    private final int fuzzyMaxResults;
+    private final int completionsPerPrefix;
+    private final Cache<String, List<Completion>> completions;
+    private final TextIndex filmTitles = new TextIndex();
+    private final TextIndex directorNames = new TextIndex();
+    private final Map<Integer, Set<Integer>> filmsByDirector = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<Integer>> directorsByFilm = new ConcurrentHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public FilmSearchIndex(JdbcTemplate jdbcTemplate,
+                           @Value("${filmorate.search.fuzzy-budget-ms:50}") long fuzzyBudgetMs,
+                           @Value("${filmorate.search.fuzzy-max-results:100}") int fuzzyMaxResults,
+                           @Value("${filmorate.search.completions-per-prefix:50}") int completionsPerPrefix,
+                           @Value("${filmorate.search.completion-ttl-ms:30000}") long completionTtlMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fuzzyBudgetNanos = TimeUnit.MILLISECONDS.toNanos(fuzzyBudgetMs);
+        this.fuzzyMaxResults = fuzzyMaxResults;
+        this.completionsPerPrefix = completionsPerPrefix;
+        this.completions = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(completionTtlMs, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            completions.invalidateAll();
+            filmTitles.clear();
+            directorNames.clear();
+            filmsByDirector.clear();
+            directorsByFilm.clear();
+            jdbcTemplate.query("select id, name from films", rs -> {
+                filmTitles.put(rs.getInt("id"), rs.getString("name"));
+            });
+            jdbcTemplate.query("select id, name from directors", rs -> {
+                directorNames.put(rs.getInt("id"), rs.getString("name"));
+            });
+            jdbcTemplate.query("select film_id, director_id from film_directors", rs -> {
+                link(rs.getInt("film_id"), rs.getInt("director_id"));
+            });
+            log.info("Поисковый индекс построен: фильмов - {}, режиссёров - {}.",
+                    filmTitles.size(), directorNames.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putFilm(Film film) {
+        putFilms(List.of(film));
+    }
+
+    public void putFilms(Collection<Film> films) {
+        lock.writeLock().lock();
+        try {
+            films.forEach(this::indexFilm);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeFilm(int filmId) {
+        lock.writeLock().lock();
+        try {
+            invalidateCompletions(filmTitles.name(filmId));
+            invalidateDirectorCompletions(filmId);
+            filmTitles.remove(filmId);
+            unlinkFilm(filmId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putDirector(Director director) {
+        lock.writeLock().lock();
+        try {
+            invalidateCompletions(directorNames.name(director.getId()));
+            invalidateCompletions(director.getName());
+            directorNames.put(director.getId(), director.getName());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeDirector(int directorId) {
+        lock.writeLock().lock();
+        try {
+            invalidateCompletions(directorNames.name(directorId));
+            directorNames.remove(directorId);
+            Set<Integer> films = filmsByDirector.remove(directorId);
+            if (films != null) {
+                films.forEach(filmId -> {
+                    Set<Integer> directors = directorsByFilm.get(filmId);
+                    if (directors != null) {
+                        directors.remove(directorId);
+                    }
+                });
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<FilmSearchHit> search(String query, boolean byTitle, boolean byDirector) {
+        lock.readLock().lock();
+        try {
+            String normalized = SearchNormalizer.normalize(query);
+            Map<Integer, FilmSearchHit> hits = new HashMap<>();
+            if (byTitle) {
+                filmTitles.match(normalized).forEach((filmId, quality) -> {
+                    hits.merge(filmId, new FilmSearchHit(filmId, quality, true), FilmSearchHit::best);
+                });
+            }
+            if (byDirector) {
+                directorNames.match(normalized).forEach((directorId, quality) -> {
+                    for (Integer filmId : filmsByDirector.getOrDefault(directorId, Set.of())) {
+                        hits.merge(filmId, new FilmSearchHit(filmId, quality, false), FilmSearchHit::best);
+                    }
+                });
+            }
+            return new ArrayList<>(hits.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<FilmSearchHit> fuzzySearch(String query, boolean byTitle, boolean byDirector) {
+        lock.readLock().lock();
+        try {
+            long deadline = System.nanoTime() + fuzzyBudgetNanos;
+            String folded = SearchNormalizer.fold(SearchNormalizer.normalize(query));
+            int maxDistance = folded.length() <= 2 ? 0 : folded.length() <= 5 ? 1 : 2;
+            Map<Integer, FilmSearchHit> hits = new HashMap<>();
+            if (byTitle) {
+                filmTitles.fuzzyMatch(folded, maxDistance, deadline, fuzzyMaxResults).forEach((filmId, distance) -> {
+                    hits.merge(filmId, new FilmSearchHit(filmId, FilmSearchHit.FUZZY - distance, true),
+                            FilmSearchHit::best);
+                });
+            }
+            if (byDirector) {
+                directorNames.fuzzyMatch(folded, maxDistance, deadline, fuzzyMaxResults)
+                        .forEach((directorId, distance) -> {
+                            for (Integer filmId : filmsByDirector.getOrDefault(directorId, Set.of())) {
+                                hits.merge(filmId, new FilmSearchHit(filmId, FilmSearchHit.FUZZY - distance, false),
+                                        FilmSearchHit::best);
+                            }
+                        });
+            }
+            if (System.nanoTime() > deadline) {
+                log.debug("Нечёткий поиск по запросу '{}' прерван по времени.", query);
+            }
+            return hits.values().stream()
+                    .sorted(Comparator.comparingDouble(FilmSearchHit::getRelevance).reversed())
+                    .limit(fuzzyMaxResults)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Completion> complete(String prefix, int limit, IntUnaryOperator filmLikes) {
+        String normalized = SearchNormalizer.normalize(prefix);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<Completion> top = completions.getIfPresent(normalized);
+            if (top == null) {
+                top = topCompletions(normalized, filmLikes);
+                completions.put(normalized, top);
+            }
+            return new ArrayList<>(top.subList(0, Math.min(limit, top.size())));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Completion> topCompletions(String prefix, IntUnaryOperator filmLikes) {
+        Comparator<Completion> order = Comparator.comparingLong(Completion::getWeight)
+                .thenComparing(Completion::getName, Comparator.reverseOrder());
+        PriorityQueue<Completion> top = new PriorityQueue<>(order);
+        filmTitles.withPrefix(prefix, filmId -> offer(top, completionsPerPrefix, order,
+                new Completion(Completion.FILM, filmId, filmTitles.name(filmId), filmLikes.applyAsInt(filmId))));
+        directorNames.withPrefix(prefix, directorId -> {
+            long likes = 0;
+            for (Integer filmId : filmsByDirector.getOrDefault(directorId, Set.of())) {
+                likes += filmLikes.applyAsInt(filmId);
+            }
+            offer(top, completionsPerPrefix, order,
+                    new Completion(Completion.DIRECTOR, directorId, directorNames.name(directorId), likes));
+        });
+        List<Completion> result = new ArrayList<>(top);
+        result.sort(order.reversed());
+        return result;
+    }
+
+    private void offer(PriorityQueue<Completion> top, int limit, Comparator<Completion> order, Completion completion) {
+        if (completion.getName() == null) {
+            return;
+        }
+        if (top.size() < limit) {
+            top.add(completion);
+        } else if (order.compare(completion, top.peek()) > 0) {
+            top.poll();
+            top.add(completion);
+        }
+    }
+
+    private void indexFilm(Film film) {
+        invalidateCompletions(filmTitles.name(film.getId()));
+        invalidateCompletions(film.getName());
+        filmTitles.put(film.getId(), film.getName());
+        if (film.getDirectors() != null) {
+            invalidateDirectorCompletions(film.getId());
+            unlinkFilm(film.getId());
+            film.getDirectors().forEach(director -> link(film.getId(), director.getId()));
+            invalidateDirectorCompletions(film.getId());
+        }
+    }
+
+    private void invalidateCompletions(String name) {
+        if (name == null) {
+            return;
+        }
+        String normalized = SearchNormalizer.normalize(name);
+        for (int end = 1; end <= normalized.length(); end++) {
+            completions.invalidate(normalized.substring(0, end));
+        }
+    }
+
+    private void invalidateDirectorCompletions(int filmId) {
+        directorsByFilm.getOrDefault(filmId, Set.of())
+                .forEach(directorId -> invalidateCompletions(directorNames.name(directorId)));
+    }
+
+    private void link(int filmId, int directorId) {
+        filmsByDirector.computeIfAbsent(directorId, id -> ConcurrentHashMap.newKeySet()).add(filmId);
+        directorsByFilm.computeIfAbsent(filmId, id -> ConcurrentHashMap.newKeySet()).add(directorId);
+    }
+
+    private void unlinkFilm(int filmId) {
+        Set<Integer> directors = directorsByFilm.remove(filmId);
+        if (directors != null) {
+            directors.forEach(directorId -> {
+                Set<Integer> films = filmsByDirector.get(directorId);
+                if (films != null) {
+                    films.remove(filmId);
+                }
+            });
+        }
+    }
+
+    private static class TextIndex {
+        private final Map<Integer, String> names = new ConcurrentHashMap<>();
+        private final Map<Integer, String> texts = new ConcurrentHashMap<>();
+        private final Map<String, Set<Integer>> grams = new ConcurrentHashMap<>();
+        private final Map<Integer, String> foldedTexts = new ConcurrentHashMap<>();
+        private final Map<String, Set<Integer>> foldedGrams = new ConcurrentHashMap<>();
+        private final Set<Integer> shortTexts = ConcurrentHashMap.newKeySet();
+        private final NavigableMap<String, Set<Integer>> sorted = new ConcurrentSkipListMap<>();
+
+        int size() {
+            return texts.size();
+        }
+
+        String name(int id) {
+            return names.get(id);
+        }
+
+        void clear() {
+            names.clear();
+            texts.clear();
+            grams.clear();
+            sorted.clear();
+            foldedTexts.clear();
+            foldedGrams.clear();
+            shortTexts.clear();
+        }
+
+        void put(int id, String name) {
+            remove(id);
+            String normalized = SearchNormalizer.normalize(name);
+            names.put(id, name);
+            texts.put(id, normalized);
+            if (normalized.length() < SearchNormalizer.GRAM_SIZE) {
+                shortTexts.add(id);
+            }
+            sorted.computeIfAbsent(normalized, t -> ConcurrentHashMap.newKeySet()).add(id);
+            for (String gram : SearchNormalizer.trigrams(normalized)) {
+                grams.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+            String folded = SearchNormalizer.fold(normalized);
+            foldedTexts.put(id, folded);
+            for (String gram : SearchNormalizer.trigrams(folded)) {
+                foldedGrams.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        }
+
+        void remove(int id) {
+            names.remove(id);
+            String old = texts.remove(id);
+            if (old == null) {
+                return;
+            }
+            shortTexts.remove(id);
+            removeFrom(sorted, old, id);
+            for (String gram : SearchNormalizer.trigrams(old)) {
+                removeFrom(grams, gram, id);
+            }
+            String folded = foldedTexts.remove(id);
+            if (folded != null) {
+                for (String gram : SearchNormalizer.trigrams(folded)) {
+                    removeFrom(foldedGrams, gram, id);
+                }
+            }
+        }
+
+        void withPrefix(String prefix, IntConsumer action) {
+            sorted.subMap(prefix, true, prefix + Character.MAX_VALUE, false)
+                    .values()
+                    .forEach(ids -> ids.forEach(action::accept));
+        }
+
+        Map<Integer, Integer> match(String query) {
+            Map<Integer, Integer> matches = new HashMap<>();
+            for (Integer id : candidates(query)) {
+                String text = texts.get(id);
+                if (text == null) {
+                    continue;
+                }
+                if (text.equals(query)) {
+                    matches.put(id, FilmSearchHit.EXACT);
+                } else if (text.startsWith(query)) {
+                    matches.put(id, FilmSearchHit.PREFIX);
+                } else if (text.contains(query)) {
+                    matches.put(id, FilmSearchHit.SUBSTRING);
+                }
+            }
+            return matches;
+        }
+
+        Map<Integer, Integer> fuzzyMatch(String folded, int maxDistance, long deadline, int limit) {
+            Map<Integer, Integer> matches = new HashMap<>();
+            for (Integer id : fuzzyCandidates(folded, maxDistance)) {
+                if (matches.size() >= limit || System.nanoTime() > deadline) {
+                    break;
+                }
+                String text = foldedTexts.get(id);
+                if (text == null) {
+                    continue;
+                }
+                int distance = SearchNormalizer.substringDistance(folded, text, maxDistance);
+                if (distance <= maxDistance) {
+                    matches.put(id, distance);
+                }
+            }
+            return matches;
+        }
+
+        private List<Integer> fuzzyCandidates(String folded, int maxDistance) {
+            Set<String> queryGrams = SearchNormalizer.trigrams(folded);
+            if (queryGrams.isEmpty()) {
+                return new ArrayList<>(shortQueryCandidates(folded, foldedGrams));
+            }
+            Map<Integer, Integer> shared = new HashMap<>();
+            for (String gram : queryGrams) {
+                for (Integer id : foldedGrams.getOrDefault(gram, Set.of())) {
+                    shared.merge(id, 1, Integer::sum);
+                }
+            }
+            int required = Math.max(1, queryGrams.size() - SearchNormalizer.GRAM_SIZE * maxDistance);
+            return shared.entrySet().stream()
+                    .filter(entry -> entry.getValue() >= required)
+                    .sorted(Map.Entry.<Integer, Integer>comparingByValue().reversed())
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+        }
+
+        private Collection<Integer> candidates(String query) {
+            if (query.length() < SearchNormalizer.GRAM_SIZE) {
+                return shortQueryCandidates(query, grams);
+            }
+            List<Set<Integer>> postings = new ArrayList<>();
+            for (String gram : SearchNormalizer.trigrams(query)) {
+                Set<Integer> posting = grams.get(gram);
+                if (posting == null) {
+                    return List.of();
+                }
+                postings.add(posting);
+            }
+            postings.sort(Comparator.comparingInt(Set::size));
+            List<Integer> result = new ArrayList<>();
+            for (Integer id : postings.get(0)) {
+                boolean inAll = true;
+                for (int i = 1; i < postings.size() && inAll; i++) {
+                    inAll = postings.get(i).contains(id);
+                }
+                if (inAll) {
+                    result.add(id);
+                }
+            }
+            return result;
+        }
+
+        private Set<Integer> shortQueryCandidates(String query, Map<String, Set<Integer>> postings) {
+            Set<Integer> result = new HashSet<>(shortTexts);
+            for (Map.Entry<String, Set<Integer>> posting : postings.entrySet()) {
+                if (posting.getKey().contains(query)) {
+                    result.addAll(posting.getValue());
+                }
+            }
+            return result;
+        }
+
+        private static void removeFrom(Map<String, Set<Integer>> postings, String key, int id) {
+            Set<Integer> posting = postings.get(key);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(key);
+                }
+            }
+        }
+    }
+}
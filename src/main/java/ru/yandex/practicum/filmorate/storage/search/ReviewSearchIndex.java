@@ -0,0 +1,130 @@
+package ru.yandex.practicum.filmorate.storage.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Review;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReviewSearchIndex {
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, Set<Integer>> postings = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<String>> tokensByReview = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> useful = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> filmByReview = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> userByReview = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public synchronized void rebuild() {
+        postings.clear();
+        tokensByReview.clear();
+        useful.clear();
+        filmByReview.clear();
+        userByReview.clear();
+        jdbcTemplate.query("select id, content, user_id, film_id, useful from reviews", rs -> {
+            put(rs.getInt("id"), rs.getString("content"), rs.getInt("user_id"),
+                    rs.getInt("film_id"), rs.getInt("useful"));
+        });
+        log.info("Поисковый индекс отзывов построен: отзывов - {}, слов - {}.", tokensByReview.size(), postings.size());
+    }
+
+    public synchronized void putReview(Review review) {
+        int currentUseful = review.getUseful() != null
+                ? review.getUseful()
+                : useful.getOrDefault(review.getReviewId(), 0);
+        Integer userId = review.getUserId() != null ? review.getUserId() : userByReview.get(review.getReviewId());
+        Integer filmId = review.getFilmId() != null ? review.getFilmId() : filmByReview.get(review.getReviewId());
+        put(review.getReviewId(), review.getContent(), userId, filmId, currentUseful);
+    }
+
+    public synchronized void removeReview(int reviewId) {
+        Set<String> tokens = tokensByReview.remove(reviewId);
+        if (tokens != null) {
+            for (String token : tokens) {
+                Set<Integer> posting = postings.get(token);
+                if (posting != null) {
+                    posting.remove(reviewId);
+                    if (posting.isEmpty()) {
+                        postings.remove(token);
+                    }
+                }
+            }
+        }
+        useful.remove(reviewId);
+        filmByReview.remove(reviewId);
+        userByReview.remove(reviewId);
+    }
+
+    public synchronized void removeFilmReviews(int filmId) {
+        removeWhere(filmByReview, filmId);
+    }
+
+    public synchronized void removeUserReviews(int userId) {
+        removeWhere(userByReview, userId);
+    }
+
+    public void changeUseful(int reviewId, int delta) {
+        useful.computeIfPresent(reviewId, (id, value) -> value + delta);
+    }
+
+    public List<Integer> search(String query, Integer filmId) {
+        Set<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        List<Set<Integer>> matched = new ArrayList<>();
+        for (String token : tokens) {
+            Set<Integer> posting = postings.get(token);
+            if (posting == null) {
+                return List.of();
+            }
+            matched.add(posting);
+        }
+        matched.sort(Comparator.comparingInt(Set::size));
+        boolean anyFilm = filmId == null || filmId == 0;
+        return matched.get(0).stream()
+                .filter(id -> matched.stream().skip(1).allMatch(posting -> posting.contains(id)))
+                .filter(id -> anyFilm || filmId.equals(filmByReview.get(id)))
+                .sorted(Comparator.comparing((Integer id) -> useful.getOrDefault(id, 0), Comparator.reverseOrder())
+                        .thenComparing(Comparator.naturalOrder()))
+                .collect(Collectors.toList());
+    }
+
+    private void put(int reviewId, String content, Integer userId, Integer filmId, int currentUseful) {
+        removeReview(reviewId);
+        Set<String> tokens = tokenize(content);
+        tokensByReview.put(reviewId, tokens);
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(reviewId);
+        }
+        useful.put(reviewId, currentUseful);
+        if (filmId != null) {
+            filmByReview.put(reviewId, filmId);
+        }
+        if (userId != null) {
+            userByReview.put(reviewId, userId);
+        }
+    }
+
+    private void removeWhere(Map<Integer, Integer> owners, int ownerId) {
+        List<Integer> reviewIds = owners.entrySet().stream()
+                .filter(entry -> entry.getValue() == ownerId)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        reviewIds.forEach(this::removeReview);
+    }
+
+    private static Set<String> tokenize(String text) {
+        return Arrays.stream(SearchNormalizer.normalize(text).split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toSet());
+    }
+}
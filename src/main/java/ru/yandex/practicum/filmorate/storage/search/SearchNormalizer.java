@@ -0,0 +1,64 @@
+package ru.yandex.practicum.filmorate.storage.search;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+public final class SearchNormalizer {
+    public static final int GRAM_SIZE = 3;
+    private static final String LATIN_HOMOGLYPHS = "aceopxykmthb";
+    private static final String CYRILLIC_HOMOGLYPHS = "асеорхукмтнв";
+
+    private SearchNormalizer() {
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.toLowerCase(Locale.ROOT)
+                .replace('ё', 'е')
+                .trim()
+                .replaceAll("\\s+", " ");
+    }
+
+    public static String fold(String normalized) {
+        char[] chars = normalized.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            int homoglyph = LATIN_HOMOGLYPHS.indexOf(chars[i]);
+            if (homoglyph >= 0) {
+                chars[i] = CYRILLIC_HOMOGLYPHS.charAt(homoglyph);
+            }
+        }
+        return new String(chars);
+    }
+
+    public static int substringDistance(String pattern, String text, int maxDistance) {
+        int[] previous = new int[pattern.length() + 1];
+        int[] current = new int[pattern.length() + 1];
+        for (int i = 0; i <= pattern.length(); i++) {
+            previous[i] = i;
+        }
+        int best = previous[pattern.length()];
+        for (int j = 1; j <= text.length() && best > 0; j++) {
+            current[0] = 0;
+            for (int i = 1; i <= pattern.length(); i++) {
+                int substitution = previous[i - 1] + (pattern.charAt(i - 1) == text.charAt(j - 1) ? 0 : 1);
+                current[i] = Math.min(substitution, Math.min(previous[i], current[i - 1]) + 1);
+            }
+            best = Math.min(best, current[pattern.length()]);
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return best <= maxDistance ? best : maxDistance + 1;
+    }
+
+    public static Set<String> trigrams(String normalized) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+}
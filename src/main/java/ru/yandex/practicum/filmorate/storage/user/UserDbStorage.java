@@ -8,23 +8,37 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 import ru.yandex.practicum.filmorate.model.Feed;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.IdRegistry;
+import ru.yandex.practicum.filmorate.storage.search.ReviewSearchIndex;
 
+import javax.annotation.PostConstruct;
 import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Component("userDbStorage")
 @Slf4j
 @RequiredArgsConstructor
 public class UserDbStorage implements UserStorage {
+    private static final int STREAM_FETCH_SIZE = 500;
     private final JdbcTemplate jdbcTemplate;
+    private final ReviewSearchIndex reviewSearchIndex;
+    private final IdRegistry userIds = new IdRegistry();
+
+    @PostConstruct
+    public void loadIds() {
+        userIds.replaceAll(jdbcTemplate.queryForList("select id from users", Integer.class));
+    }
 
     @Override
     public User add(User user) {
@@ -39,14 +53,20 @@ public class UserDbStorage implements UserStorage {
             return stmt;
         }, keyHolder);
         user.setId(keyHolder.getKeyAs(Integer.class));
+        userIds.add(user.getId());
         log.info("Пользователь добавлен");
         return user;
     }
 
     @Override
+    @Transactional
     public void remove(Integer id) {
+        jdbcTemplate.update("update films set likes_count = likes_count - 1 " +
+                "where id in (select film_id from film_likes where user_id = ?)", id);
         String sql = "delete from users where id = ?";
         jdbcTemplate.update(sql, id);
+        userIds.remove(id);
+        reviewSearchIndex.removeUserReviews(id);
         log.info("Пользователь удалён");
     }
 
@@ -76,6 +96,28 @@ public class UserDbStorage implements UserStorage {
         return jdbcTemplate.query(sql, this::mapRowToUser);
     }
 
+    @Override
+    public void streamAll(Consumer<User> consumer) {
+        String sql = "select * from users";
+        jdbcTemplate.query(connection -> {
+            PreparedStatement stmt = connection.prepareStatement(sql);
+            stmt.setFetchSize(STREAM_FETCH_SIZE);
+            return stmt;
+        }, rs -> {
+            consumer.accept(mapRowToUser(rs, rs.getRow()));
+        });
+    }
+
+    @Override
+    public boolean exists(Integer id) {
+        return userIds.contains(id);
+    }
+
+    @Override
+    public boolean existsAll(Collection<Integer> ids) {
+        return userIds.containsAll(ids);
+    }
+
     @Override
     public Optional<User> getById(Integer id) {
         try {
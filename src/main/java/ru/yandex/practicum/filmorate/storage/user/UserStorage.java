@@ -3,8 +3,10 @@ package ru.yandex.practicum.filmorate.storage.user;
 import ru.yandex.practicum.filmorate.model.Feed;
 import ru.yandex.practicum.filmorate.model.User;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface UserStorage {
     User add(User user);
@@ -15,8 +17,14 @@ public interface UserStorage {
 
     List<User> getAll();
 
+    void streamAll(Consumer<User> consumer);
+
     Optional<User> getById(Integer id);
 
+    boolean exists(Integer id);
+
+    boolean existsAll(Collection<Integer> ids);
+
     void addFriend(Integer userId, Integer friendId);
 
     List<User> getFriends(Integer id);
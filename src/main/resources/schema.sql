@@ -1,3 +1,5 @@
+DROP TABLE IF EXISTS user_recommendation_sets CASCADE;
+DROP TABLE IF EXISTS user_recommendations CASCADE;
 DROP TABLE IF EXISTS user_feedback CASCADE;
 DROP TABLE IF EXISTS feeds CASCADE;
 DROP TABLE IF EXISTS review_likes CASCADE;
@@ -29,8 +31,12 @@ CREATE TABLE IF NOT EXISTS films
     description  varchar(200) NOT NULL,
     release_date date         NOT NULL,
     duration     bigint,
-    mpa_id       integer REFERENCES mpa (id) ON DELETE CASCADE
+    mpa_id       integer REFERENCES mpa (id) ON DELETE CASCADE,
+    likes_count  integer DEFAULT 0 NOT NULL,
+    search_name  varchar
 );
+CREATE INDEX IF NOT EXISTS films_likes_count_idx ON films (likes_count);
+CREATE INDEX IF NOT EXISTS films_search_name_idx ON films (search_name);
 CREATE TABLE IF NOT EXISTS film_genres
 (
     film_id  integer REFERENCES films (id) ON DELETE CASCADE,
@@ -51,6 +57,17 @@ CREATE TABLE IF NOT EXISTS film_likes
     user_id integer REFERENCES users (id) ON DELETE CASCADE,
     CONSTRAINT film_likes_PK PRIMARY KEY (film_id, user_id)
 );
+CREATE TABLE IF NOT EXISTS user_recommendations
+(
+    user_id  integer REFERENCES users (id) ON DELETE CASCADE,
+    position integer NOT NULL,
+    film_id  integer REFERENCES films (id) ON DELETE CASCADE,
+    CONSTRAINT user_recommendations_PK PRIMARY KEY (user_id, position)
+);
+CREATE TABLE IF NOT EXISTS user_recommendation_sets
+(
+    user_id integer PRIMARY KEY REFERENCES users (id) ON DELETE CASCADE
+);
 CREATE TABLE IF NOT EXISTS friends
 (
     user_id   integer REFERENCES users (id) ON DELETE CASCADE,
@@ -59,9 +76,11 @@ CREATE TABLE IF NOT EXISTS friends
 );
 CREATE TABLE IF NOT EXISTS directors
 (
-    id   integer GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-    name varchar NOT NULL
+    id          integer GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        varchar NOT NULL,
+    search_name varchar
 );
+CREATE INDEX IF NOT EXISTS directors_search_name_idx ON directors (search_name);
 CREATE TABLE IF NOT EXISTS film_directors
 (
     film_id     integer REFERENCES films (id) ON DELETE CASCADE,
@@ -85,14 +104,14 @@ CREATE TABLE IF NOT EXISTS review_likes
     CONSTRAINT review_likes_PK PRIMARY KEY (review_id, user_id)
 );
 
-CREATE TABLE IF NOT EXISTS feed
+CREATE TABLE IF NOT EXISTS feeds
 (
-    eventId   INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-    userId    integer REFERENCES users (id) ON DELETE CASCADE,
-    timestamp bigint,
-    eventType varchar NOT NULL,
-    operation varchar NOT NULL,
-    entityId  integer
+    event_id   INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id    integer REFERENCES users (id) ON DELETE CASCADE,
+    timestamp  bigint,
+    event_type varchar NOT NULL,
+    operation  varchar NOT NULL,
+    entity_id  integer
 );
 
 CREATE TABLE IF NOT EXISTS user_feedback
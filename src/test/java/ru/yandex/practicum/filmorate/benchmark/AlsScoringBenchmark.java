@@ -0,0 +1,104 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.yandex.practicum.filmorate.service.recommendation.AlsModel;
+import ru.yandex.practicum.filmorate.storage.film.LikeMatrix;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Ядро выдачи рекомендаций ALS: блочное скалярное произведение с отбором top-K в куче
+ * против наивного подсчёта всех оценок и полной сортировки.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AlsScoringBenchmark {
+    private static final int USER_COUNT = 1000;
+
+    @Param({"32", "64"})
+    private int factors;
+
+    @Param({"10000", "100000"})
+    private int filmCount;
+
+    @Param({"100"})
+    private int topK;
+
+    private float[] filmFactors;
+    private float[] userFactors;
+    private AlsModel model;
+    private List<AlsModel.UserVector> users;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        LikeMatrix.Builder builder = new LikeMatrix.Builder();
+        for (int user = 0; user < USER_COUNT; user++) {
+            for (int film = user; film < filmCount; film += USER_COUNT) {
+                builder.add(user + 1, film + 1);
+            }
+        }
+        userFactors = new float[USER_COUNT * factors];
+        filmFactors = new float[filmCount * factors];
+        for (int i = 0; i < userFactors.length; i++) {
+            userFactors[i] = (float) random.nextGaussian();
+        }
+        for (int i = 0; i < filmFactors.length; i++) {
+            filmFactors[i] = (float) random.nextGaussian();
+        }
+        model = new AlsModel(builder.build(), factors, 0.1f, userFactors, filmFactors);
+        users = new ArrayList<>(USER_COUNT);
+        for (int user = 1; user <= USER_COUNT; user++) {
+            users.add(model.getUserVector(user));
+        }
+    }
+
+    @Benchmark
+    public List<Integer> topKBlocked() {
+        next = (next + 1) % USER_COUNT;
+        return model.recommend(users.get(next), topK);
+    }
+
+    @Benchmark
+    public List<Integer> topKNaive() {
+        next = (next + 1) % USER_COUNT;
+        int userBase = next * factors;
+        float[] scores = new float[filmCount];
+        for (int film = 0; film < filmCount; film++) {
+            float score = 0;
+            for (int f = 0; f < factors; f++) {
+                score += userFactors[userBase + f] * filmFactors[film * factors + f];
+            }
+            scores[film] = score;
+        }
+        int user = next;
+        return IntStream.range(0, filmCount)
+                .filter(film -> film % USER_COUNT != user)
+                .boxed()
+                .sorted(Comparator.comparingDouble((Integer film) -> scores[film]).reversed())
+                .limit(topK)
+                .map(film -> film + 1)
+                .collect(Collectors.toList());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AlsScoringBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
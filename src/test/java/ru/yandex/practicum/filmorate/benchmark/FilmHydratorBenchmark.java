@@ -0,0 +1,104 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.storage.ReferenceDataRegistry;
+import ru.yandex.practicum.filmorate.storage.film.FilmHydrator;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Сравнение загрузки жанров и режиссёров для списка фильмов: прежний IN-список с параметром на каждый фильм
+ * против {@link FilmHydrator}. Запуск: {@code mvn test-compile} и {@code main} из IDE либо через test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FilmHydratorBenchmark {
+    @Param({"10000", "100000"})
+    private int filmCount;
+
+    private JdbcTemplate jdbcTemplate;
+    private FilmHydrator filmHydrator;
+    private List<Film> films;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:hydrator" + filmCount + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table genres (id integer primary key, name varchar)");
+        jdbcTemplate.execute("create table mpa (id integer primary key, name varchar)");
+        jdbcTemplate.execute("create table directors (id integer primary key, name varchar)");
+        jdbcTemplate.execute("create table film_genres (film_id integer, genre_id integer, primary key (film_id, genre_id))");
+        jdbcTemplate.execute("create table film_directors (film_id integer, director_id integer, primary key (film_id, director_id))");
+        for (int i = 1; i <= 6; i++) {
+            jdbcTemplate.update("insert into genres values (?, ?)", i, "genre" + i);
+        }
+        List<Object[]> directors = new ArrayList<>();
+        List<Object[]> filmGenres = new ArrayList<>();
+        List<Object[]> filmDirectors = new ArrayList<>();
+        films = new ArrayList<>(filmCount);
+        for (int id = 1; id <= filmCount; id++) {
+            films.add(new Film(id, "film" + id, "desc", LocalDate.of(2000, 1, 1), 100L, new Mpa(1, "G")));
+            filmGenres.add(new Object[]{id, id % 6 + 1});
+            filmGenres.add(new Object[]{id, (id + 3) % 6 + 1});
+            if (id % 10 == 0) {
+                directors.add(new Object[]{id / 10, "director" + id / 10});
+            }
+            filmDirectors.add(new Object[]{id, id / 10 + 1});
+        }
+        directors.add(new Object[]{filmCount / 10 + 1, "director" + (filmCount / 10 + 1)});
+        jdbcTemplate.batchUpdate("insert into directors values (?, ?)", directors);
+        jdbcTemplate.batchUpdate("insert into film_genres values (?, ?)", filmGenres);
+        jdbcTemplate.batchUpdate("insert into film_directors values (?, ?)", filmDirectors);
+        ReferenceDataRegistry referenceData = new ReferenceDataRegistry(jdbcTemplate);
+        referenceData.load();
+        filmHydrator = new FilmHydrator(jdbcTemplate, referenceData);
+    }
+
+    @Benchmark
+    public List<Film> arrayParameter() {
+        filmHydrator.hydrate(films);
+        return films;
+    }
+
+    @Benchmark
+    public int inListPerSize() {
+        List<Integer> ids = films.stream()
+                .map(Film::getId)
+                .collect(Collectors.toList());
+        String inSql = String.join(",", Collections.nCopies(ids.size(), "?"));
+        int[] rows = new int[1];
+        jdbcTemplate.query(String.format("select fg.film_id, g.* from film_genres fg " +
+                "join genres g on g.id = fg.genre_id where fg.film_id in (%s)", inSql), rs -> {
+            rows[0]++;
+        }, ids.toArray());
+        jdbcTemplate.query(String.format("select fd.film_id, d.* from film_directors fd " +
+                "join directors d on d.id = fd.director_id where fd.film_id in (%s)", inSql), rs -> {
+            rows[0]++;
+        }, ids.toArray());
+        return rows[0];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FilmHydratorBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,77 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import ru.yandex.practicum.filmorate.service.recommendation.JaccardIndex;
+import ru.yandex.practicum.filmorate.service.recommendation.MinHashIndex;
+import ru.yandex.practicum.filmorate.storage.film.LikeMatrix;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Офлайн-замер полноты рекомендаций MinHash LSH относительно точного сходства Жаккара
+ * ({@link JaccardIndex}) на синтетических лайках с кластерами вкусов.
+ * Для каждой пары "полосы x строки" выводит recall@K и среднее время рекомендации на пользователя.
+ * Запуск: {@code main} из IDE либо через test classpath, аргументы - число пользователей и фильмов.
+ */
+public class MinHashRecallReport {
+    private static final int[][] SETTINGS = {{8, 4}, {16, 2}, {32, 2}, {32, 1}, {64, 1}};
+    private static final int TOP = 10;
+    private static final int SAMPLE = 500;
+    private static final int LIKES_PER_USER = 20;
+    private static final int CLUSTERS = 50;
+
+    public static void main(String[] args) {
+        int userCount = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        int filmCount = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        Random random = new Random(42);
+        LikeMatrix likes = generate(random, userCount, filmCount);
+        int[] users = random.ints(SAMPLE, 1, userCount + 1).toArray();
+
+        JaccardIndex exact = JaccardIndex.fromLikes(likes);
+        long start = System.nanoTime();
+        List<List<Integer>> expected = new ArrayList<>();
+        for (int user : users) {
+            List<Integer> recommended = exact.recommend(user);
+            expected.add(recommended.subList(0, Math.min(TOP, recommended.size())));
+        }
+        System.out.printf("exact jaccard: %.3f ms/user%n", (System.nanoTime() - start) / 1e6 / SAMPLE);
+
+        for (int[] setting : SETTINGS) {
+            MinHashIndex index = MinHashIndex.fromLikes(likes, setting[0], setting[1]);
+            long found = 0;
+            long total = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < users.length; i++) {
+                List<Integer> recommended = index.recommend(users[i]);
+                Set<Integer> top = new HashSet<>(recommended.subList(0, Math.min(TOP, recommended.size())));
+                total += expected.get(i).size();
+                found += expected.get(i).stream().filter(top::contains).count();
+            }
+            System.out.printf("minhash bands=%d rows=%d: recall@%d = %.3f, %.3f ms/user%n", setting[0], setting[1],
+                    TOP, total == 0 ? 1.0 : (double) found / total, (System.nanoTime() - start) / 1e6 / SAMPLE);
+        }
+    }
+
+    private static LikeMatrix generate(Random random, int userCount, int filmCount) {
+        LikeMatrix.Builder builder = new LikeMatrix.Builder();
+        int clusterSize = Math.max(1, filmCount / CLUSTERS);
+        for (int user = 1; user <= userCount; user++) {
+            int cluster = random.nextInt(CLUSTERS);
+            TreeSet<Integer> films = new TreeSet<>();
+            while (films.size() < LIKES_PER_USER) {
+                int film = random.nextInt(4) == 0
+                        ? 1 + random.nextInt(filmCount)
+                        : 1 + Math.min(filmCount - 1, cluster * clusterSize + random.nextInt(clusterSize));
+                films.add(film);
+            }
+            for (int film : films) {
+                builder.add(user, film);
+            }
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,92 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.yandex.practicum.filmorate.service.recommendation.JaccardIndex;
+import ru.yandex.practicum.filmorate.service.recommendation.SlopeOneModel;
+import ru.yandex.practicum.filmorate.storage.film.LikeMatrix;
+
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Задержка рекомендаций для одного пользователя: Slope One на CSR-массивах
+ * против сходства Жаккара по битовым картам лайкнувших, а также построение обеих структур.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RecommenderBenchmark {
+    @Param({"1000", "10000"})
+    private int userCount;
+
+    @Param({"2000"})
+    private int filmCount;
+
+    @Param({"20"})
+    private int likesPerUser;
+
+    private LikeMatrix likes;
+    private SlopeOneModel slopeOne;
+    private JaccardIndex jaccard;
+    private int[] users;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        LikeMatrix.Builder builder = new LikeMatrix.Builder();
+        for (int user = 1; user <= userCount; user++) {
+            TreeSet<Integer> films = new TreeSet<>();
+            while (films.size() < likesPerUser) {
+                films.add((int) Math.min(filmCount, 1 + Math.abs(random.nextGaussian()) * filmCount / 4));
+            }
+            for (int film : films) {
+                builder.add(user, film);
+            }
+        }
+        likes = builder.build();
+        slopeOne = SlopeOneModel.fromLikes(likes);
+        jaccard = JaccardIndex.fromLikes(likes);
+        users = random.ints(1024, 1, userCount + 1).toArray();
+    }
+
+    @Benchmark
+    public List<Integer> recommendSlopeOne() {
+        return slopeOne.recommend(nextUser());
+    }
+
+    @Benchmark
+    public List<Integer> recommendJaccard() {
+        return jaccard.recommend(nextUser());
+    }
+
+    @Benchmark
+    public SlopeOneModel buildSlopeOne() {
+        return SlopeOneModel.fromLikes(likes);
+    }
+
+    @Benchmark
+    public JaccardIndex buildJaccard() {
+        return JaccardIndex.fromLikes(likes);
+    }
+
+    private int nextUser() {
+        next = (next + 1) & (users.length - 1);
+        return users[next];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RecommenderBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,155 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.yandex.practicum.filmorate.service.recommendation.SlopeOneModel;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Сравнение {@link SlopeOneModel} на примитивных CSR-массивах с прежней моделью на вложенных {@code HashMap}:
+ * построение матрицы отклонений и предсказание для одного пользователя.
+ * Запуск: {@code mvn test-compile} и {@code main} из IDE либо через test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SlopeOneBenchmark {
+    @Param({"1000", "10000"})
+    private int userCount;
+
+    @Param({"2000"})
+    private int filmCount;
+
+    @Param({"20"})
+    private int likesPerUser;
+
+    private Map<Integer, Map<Integer, Double>> ratings;
+    private SlopeOneModel model;
+    private MapSlopeOne mapModel;
+    private int userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        ratings = new HashMap<>();
+        for (int user = 1; user <= userCount; user++) {
+            Map<Integer, Double> likes = new HashMap<>();
+            while (likes.size() < likesPerUser) {
+                int film = (int) Math.min(filmCount, 1 + Math.abs(random.nextGaussian()) * filmCount / 4);
+                likes.put(film, 1.0);
+            }
+            ratings.put(user, likes);
+        }
+        model = SlopeOneModel.build(ratings);
+        mapModel = MapSlopeOne.build(ratings);
+        userId = userCount / 2;
+    }
+
+    @Benchmark
+    public SlopeOneModel buildCsr() {
+        return SlopeOneModel.build(ratings);
+    }
+
+    @Benchmark
+    public MapSlopeOne buildMaps() {
+        return MapSlopeOne.build(ratings);
+    }
+
+    @Benchmark
+    public List<Integer> recommendCsr() {
+        return model.recommend(userId);
+    }
+
+    @Benchmark
+    public List<Integer> recommendMaps() {
+        return mapModel.recommend(userId);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SlopeOneBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    /**
+     * Прежняя реализация модели: матрицы отклонений и частот во вложенных {@code HashMap} с упакованными значениями.
+     */
+    public static final class MapSlopeOne {
+        private final Map<Integer, Map<Integer, Double>> ratings;
+        private final Map<Integer, Map<Integer, Double>> diff;
+        private final Map<Integer, Map<Integer, Integer>> freq;
+
+        private MapSlopeOne(Map<Integer, Map<Integer, Double>> ratings,
+                            Map<Integer, Map<Integer, Double>> diff,
+                            Map<Integer, Map<Integer, Integer>> freq) {
+            this.ratings = ratings;
+            this.diff = diff;
+            this.freq = freq;
+        }
+
+        static MapSlopeOne build(Map<Integer, Map<Integer, Double>> ratings) {
+            Map<Integer, Map<Integer, Double>> sums = new HashMap<>();
+            Map<Integer, Map<Integer, Integer>> counts = new HashMap<>();
+            for (Map<Integer, Double> userRatings : ratings.values()) {
+                for (Map.Entry<Integer, Double> first : userRatings.entrySet()) {
+                    Map<Integer, Double> sumRow = sums.computeIfAbsent(first.getKey(), id -> new HashMap<>());
+                    Map<Integer, Integer> countRow = counts.computeIfAbsent(first.getKey(), id -> new HashMap<>());
+                    for (Map.Entry<Integer, Double> second : userRatings.entrySet()) {
+                        sumRow.merge(second.getKey(), first.getValue() - second.getValue(), Double::sum);
+                        countRow.merge(second.getKey(), 1, Integer::sum);
+                    }
+                }
+            }
+            Map<Integer, Map<Integer, Double>> diff = new HashMap<>();
+            sums.forEach((filmId, sumRow) -> {
+                Map<Integer, Integer> countRow = counts.get(filmId);
+                Map<Integer, Double> diffRow = new HashMap<>();
+                sumRow.forEach((otherId, sum) -> diffRow.put(otherId, sum / countRow.get(otherId)));
+                diff.put(filmId, Map.copyOf(diffRow));
+            });
+            Map<Integer, Map<Integer, Integer>> freq = new HashMap<>();
+            counts.forEach((filmId, countRow) -> freq.put(filmId, Map.copyOf(countRow)));
+            Map<Integer, Map<Integer, Double>> ratingsCopy = new HashMap<>();
+            ratings.forEach((userId, userRatings) -> ratingsCopy.put(userId, Map.copyOf(userRatings)));
+            return new MapSlopeOne(Map.copyOf(ratingsCopy), Map.copyOf(diff), Map.copyOf(freq));
+        }
+
+        List<Integer> recommend(int userId) {
+            Map<Integer, Double> userRatings = ratings.getOrDefault(userId, Map.of());
+            Map<Integer, Double> weighted = new HashMap<>();
+            Map<Integer, Integer> weights = new HashMap<>();
+            for (Map.Entry<Integer, Double> rated : userRatings.entrySet()) {
+                Map<Integer, Double> diffRow = diff.getOrDefault(rated.getKey(), Map.of());
+                Map<Integer, Integer> freqRow = freq.getOrDefault(rated.getKey(), Map.of());
+                diffRow.forEach((filmId, ratedMinusFilm) -> {
+                    if (userRatings.containsKey(filmId)) {
+                        return;
+                    }
+                    int count = freqRow.get(filmId);
+                    weighted.merge(filmId, (rated.getValue() - ratedMinusFilm) * count, Double::sum);
+                    weights.merge(filmId, count, Integer::sum);
+                });
+            }
+            Map<Integer, Double> predictions = new HashMap<>();
+            weighted.forEach((filmId, sum) -> predictions.put(filmId, sum / weights.get(filmId)));
+            return predictions.entrySet().stream()
+                    .filter(prediction -> prediction.getValue() > 0)
+                    .sorted(Map.Entry.<Integer, Double>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.yandex.practicum.filmorate.service.recommendation.SlopeOneModel;
+import ru.yandex.practicum.filmorate.storage.film.LikeMatrix;
+
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Построение {@link SlopeOneModel} в {@link ForkJoinPool} с разным числом потоков.
+ * Пропускная способность в лайках в секунду - {@code userCount * likesPerUser} делить на среднее время.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SlopeOneParallelBenchmark {
+    @Param({"1", "2", "4", "8"})
+    private int parallelism;
+
+    @Param({"50000"})
+    private int userCount;
+
+    @Param({"5000"})
+    private int filmCount;
+
+    @Param({"20"})
+    private int likesPerUser;
+
+    private LikeMatrix likes;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        LikeMatrix.Builder builder = new LikeMatrix.Builder();
+        for (int user = 1; user <= userCount; user++) {
+            TreeSet<Integer> films = new TreeSet<>();
+            while (films.size() < likesPerUser) {
+                films.add((int) Math.min(filmCount, 1 + Math.abs(random.nextGaussian()) * filmCount / 4));
+            }
+            for (int film : films) {
+                builder.add(user, film);
+            }
+        }
+        likes = builder.build();
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public SlopeOneModel build() {
+        return SlopeOneModel.fromLikes(likes, pool);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SlopeOneParallelBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,107 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.service.FilmService;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class FilmControllerTest {
+    private final MockMvc mockMvc;
+    private final FilmService filmService;
+
+    @BeforeEach
+    void cleanDb() {
+        filmService.getFilms().forEach(film -> filmService.removeFilm(film.getId()));
+    }
+
+    @Test
+    public void streamEmptyFilmList() throws Exception {
+        mockMvc.perform(asyncDispatch(stream("/films?stream=true")))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+    }
+
+    @Test
+    public void streamAllFilms() throws Exception {
+        Film first = addFilm("first");
+        mockMvc.perform(asyncDispatch(stream("/films?stream=true")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(first.getId()));
+
+        addFilm("second");
+        addFilm("third");
+        mockMvc.perform(asyncDispatch(stream("/films?stream=true")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[*].name").value(containsInAnyOrder(
+                        "first", "second", "third")));
+    }
+
+    @Test
+    public void streamWithLimitReturnsPage() throws Exception {
+        addFilm("first");
+        addFilm("second");
+        addFilm("third");
+
+        mockMvc.perform(get("/films?stream=true&limit=2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.films", hasSize(2)))
+                .andExpect(jsonPath("$.nextCursor").isNumber());
+    }
+
+    @Test
+    public void ndjsonBatchReportsBadLinesAndKeepsTheRest() throws Exception {
+        String body = "{\"name\":\"first\",\"description\":\"desc\",\"releaseDate\":\"2000-01-01\","
+                + "\"duration\":100,\"mpa\":{\"id\":1}}\n"
+                + "{\"name\": oops}\n"
+                + "{\"name\":\"third\",\"description\":\"desc\",\"releaseDate\":\"2000-01-01\","
+                + "\"duration\":\"long\",\"mpa\":{\"id\":1}}\n"
+                + "{\"name\":\"fourth\",\"description\":\"desc\",\"releaseDate\":\"2000-01-01\","
+                + "\"duration\":100,\"mpa\":{\"id\":1}}\n";
+
+        mockMvc.perform(post("/films/batch").contentType("application/x-ndjson").content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(4)))
+                .andExpect(jsonPath("$[0].id").isNumber())
+                .andExpect(jsonPath("$[1].error").value("Некорректный JSON в строке."))
+                .andExpect(jsonPath("$[2].error").value("Некорректный JSON в строке."))
+                .andExpect(jsonPath("$[3].id").isNumber());
+    }
+
+    private MvcResult stream(String url) throws Exception {
+        return mockMvc.perform(get(url))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private Film addFilm(String name) {
+        return filmService.createFilm(new Film(name, "desc", LocalDate.of(2000, 1, 1), 100L,
+                new Mpa(1, "G"), List.of()));
+    }
+}
@@ -0,0 +1,48 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JsonStreamWriterTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonStreamWriter jsonStreamWriter = new JsonStreamWriter(objectMapper);
+
+    @Test
+    public void writeArrayOfNoItems() throws IOException {
+        assertEquals("[]", write(List.of()));
+    }
+
+    @Test
+    public void writeArrayOfOneItem() throws IOException {
+        assertEquals("[{\"id\":1}]", write(List.of(Map.of("id", 1))));
+    }
+
+    @Test
+    public void writeArrayOfManyItems() throws IOException {
+        String json = write(List.of(Map.of("id", 1), Map.of("id", 2), Map.of("id", 3)));
+
+        assertEquals(List.of(Map.of("id", 1), Map.of("id", 2), Map.of("id", 3)),
+                objectMapper.readValue(json, List.class));
+    }
+
+    private String write(List<Map<String, Integer>> items) throws IOException {
+        Consumer<Consumer<Map<String, Integer>>> source = items::forEach;
+        ResponseEntity<StreamingResponseBody> response = jsonStreamWriter.writeArray(source);
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
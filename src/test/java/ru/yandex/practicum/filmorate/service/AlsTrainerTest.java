@@ -0,0 +1,55 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.service.recommendation.AlsModel;
+import ru.yandex.practicum.filmorate.service.recommendation.AlsTrainer;
+import ru.yandex.practicum.filmorate.storage.film.LikeMatrix;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AlsTrainerTest {
+
+    @Test
+    public void alsRecommendsFilmsOfTheSameTaste() {
+        LikeMatrix.Builder builder = new LikeMatrix.Builder();
+        for (int user = 1; user <= 20; user++) {
+            int first = user <= 10 ? 1 : 101;
+            for (int film = first; film < first + 5; film++) {
+                if (user != 1 || film != first) {
+                    builder.add(user, film);
+                }
+            }
+        }
+        AlsTrainer trainer = new AlsTrainer(8, 10, 0.1f, 20);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            AlsModel model = trainer.train(builder.build(), pool);
+            List<Integer> recommended = model.recommend(model.getUserVector(1), 3);
+
+            assertEquals(3, recommended.size());
+            assertEquals(1, recommended.get(0));
+            assertFalse(recommended.contains(2));
+            assertNull(model.getUserVector(99));
+
+            List<Integer> folded = model.recommend(model.foldIn(List.of(101, 102, 103), trainer.getAlpha()), 2);
+            assertEquals(List.of(104, 105), folded);
+            assertTrue(model.recommend(model.foldIn(List.of(1, 2, 3, 4, 5, 101, 102, 103, 104, 105),
+                    trainer.getAlpha()), 10).isEmpty());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void alsTrainerRejectsInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new AlsTrainer(0, 10, 0.1f, 20));
+        assertThrows(IllegalArgumentException.class, () -> new AlsTrainer(8, 10, 0, 20));
+    }
+}
@@ -1,18 +1,25 @@
 package ru.yandex.practicum.filmorate.service;
 
 import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
+import ru.yandex.practicum.filmorate.model.Completion;
+import ru.yandex.practicum.filmorate.model.Director;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmBatchResult;
+import ru.yandex.practicum.filmorate.model.FilmPage;
 import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.User;
 import ru.yandex.practicum.filmorate.throwable.IncorrectCountException;
 import ru.yandex.practicum.filmorate.throwable.NotFoundException;
 import ru.yandex.practicum.filmorate.throwable.ValidationException;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -23,6 +30,15 @@ import static org.junit.Assert.assertThrows;
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 class FilmServiceTest {
     private final FilmService filmService;
+    private final UserService userService;
+    private final DirectorService directorService;
+    private final List<Integer> createdUsers = new ArrayList<>();
+
+    @AfterEach
+    void removeCreatedUsers() {
+        createdUsers.forEach(userService::removeUser);
+        createdUsers.clear();
+    }
 
     @Test
     void createFilm() {
@@ -35,6 +51,20 @@ class FilmServiceTest {
                 .hasFieldOrPropertyWithValue("releaseDate", LocalDate.of(2000, 7, 4));
     }
 
+    @Test
+    void createFilmsReportsInvalidItems() {
+        List<FilmBatchResult> results = filmService.createFilms(List.of(
+                new Film("name", "description", LocalDate.of(2000, 7, 4), 100L, new Mpa(1, "G"), List.of()),
+                new Film("old", "description", LocalDate.of(1800, 7, 4), 100L, new Mpa(1, "G"), List.of())));
+
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).getId()).isNotNull();
+        assertThat(results.get(0).getError()).isNull();
+        assertThat(results.get(1).getId()).isNull();
+        assertThat(results.get(1).getError()).isNotNull();
+        assertThat(filmService.getFilm(results.get(0).getId())).hasFieldOrPropertyWithValue("name", "name");
+    }
+
     @Test
     void updateFilm() {
         Film film1 = filmService.createFilm(new Film("name", "description",
@@ -124,6 +154,123 @@ class FilmServiceTest {
         assertThat(films.size()).isEqualTo(0);
     }
 
+    @Test
+    void getPopularFilmsOrderedByLikes() {
+        Film film = filmService.createFilm(new Film("name", "description",
+                LocalDate.of(1901, 7, 4), 100L, new Mpa(1, "G"), List.of()));
+        Film liked = filmService.createFilm(new Film("liked", "description",
+                LocalDate.of(1901, 7, 4), 100L, new Mpa(1, "G"), List.of()));
+        User user = userService.createUser(new User("mail@mail.ru", "login", "name", LocalDate.of(2000, 1, 1)));
+        createdUsers.add(user.getId());
+        filmService.addLike(liked.getId(), user.getId());
+
+        List<Film> films = filmService.getPopularFilmsOnGenreAndYear(10, null, 1901);
+
+        assertThat(films).extracting(Film::getId).containsExactly(liked.getId(), film.getId());
+    }
+
+    @Test
+    void getFilmBySearchRanksExactTitleFirst() {
+        Film partial = filmService.createFilm(new Film("Ёлки и палки", "description",
+                LocalDate.of(2000, 7, 4), 100L, new Mpa(1, "G"), List.of()));
+        Film exact = filmService.createFilm(new Film("Палки", "description",
+                LocalDate.of(2000, 7, 4), 100L, new Mpa(1, "G"), List.of()));
+        Film other = filmService.createFilm(new Film("Другое", "description",
+                LocalDate.of(2000, 7, 4), 100L, new Mpa(1, "G"), List.of()));
+
+        List<Film> found = filmService.getFilmBySearch("пАлки", "title");
+        assertThat(found).extracting(Film::getId).containsSubsequence(exact.getId(), partial.getId())
+                .doesNotContain(other.getId());
+        assertThat(filmService.getFilmBySearch("елки", "title")).extracting(Film::getId)
+                .contains(partial.getId());
+    }
+
+    @Test
+    void getFilmsPageSetsCursorOnlyWhenMoreFilmsRemain() {
+        Film first = filmService.createFilm(new Film("page 1", "description",
+                LocalDate.of(2000, 7, 4), 100L, new Mpa(1, "G"), List.of()));
+        Film second = filmService.createFilm(new Film("page 2", "description",
+                LocalDate.of(2000, 7, 4), 100L, new Mpa(1, "G"), List.of()));
+        Film third = filmService.createFilm(new Film("page 3", "description",
+                LocalDate.of(2000, 7, 4), 100L, new Mpa(1, "G"), List.of()));
+
+        FilmPage page = filmService.getFilmsPage(first.getId() - 1, 2);
+        assertThat(page.getFilms()).extracting(Film::getId).containsExactly(first.getId(), second.getId());
+        assertThat(page.getNextCursor()).isEqualTo(second.getId());
+
+        FilmPage last = filmService.getFilmsPage(page.getNextCursor(), 1);
+        assertThat(last.getFilms()).extracting(Film::getId).containsExactly(third.getId());
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getFilmBySearchPageReturnsRankedPages() {
+        Film substring = filmService.createFilm(new Film("Большая страница", "description",
+                LocalDate.of(2000, 7, 4), 100L, new Mpa(1, "G"), List.of()));
+        Film prefix = filmService.createFilm(new Film("Страница вторая", "description",
+                LocalDate.of(2000, 7, 4), 100L, new Mpa(1, "G"), List.of()));
+        Film exact = filmService.createFilm(new Film("Страница", "description",
+                LocalDate.of(2000, 7, 4), 100L, new Mpa(1, "G"), List.of()));
+
+        FilmPage first = filmService.getFilmBySearchPage("страница", "title", false, null, 2);
+        assertThat(first.getFilms()).extracting(Film::getId).containsExactly(exact.getId(), prefix.getId());
+        assertThat(first.getNextCursor()).isEqualTo(2);
+
+        FilmPage second = filmService.getFilmBySearchPage("страница", "title", false, first.getNextCursor(), 2);
+        assertThat(second.getFilms()).extracting(Film::getId).containsExactly(substring.getId());
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getFilmByPrefixSearchMatchesTitleAndDirectorPrefixes() {
+        Director director = directorService.createDirector(new Director(0, "Префиксов Режиссёр"));
+        Film titled = filmService.createFilm(new Film("Префикс в названии", "description",
+                LocalDate.of(2000, 7, 4), 100L, new Mpa(1, "G"), List.of()));
+        Film directed = new Film("Другое кино", "description",
+                LocalDate.of(2000, 7, 4), 100L, new Mpa(1, "G"), List.of());
+        directed.setDirectors(List.of(director));
+        directed = filmService.createFilm(directed);
+        Film inner = filmService.createFilm(new Film("Без префикса", "description",
+                LocalDate.of(2000, 7, 4), 100L, new Mpa(1, "G"), List.of()));
+
+        assertThat(filmService.getFilmByPrefixSearch("ПРЕФИКС", "title")).extracting(Film::getId)
+                .contains(titled.getId()).doesNotContain(directed.getId(), inner.getId());
+        assertThat(filmService.getFilmByPrefixSearch("префиксов", "director")).extracting(Film::getId)
+                .containsExactly(directed.getId());
+        assertThat(filmService.getFilmByPrefixSearch("префикс", "title,director")).extracting(Film::getId)
+                .contains(titled.getId(), directed.getId()).doesNotContain(inner.getId());
+    }
+
+    @Test
+    void getFilmByFuzzySearchToleratesTyposAndLatinLetters() {
+        Film film = filmService.createFilm(new Film("Терминатор", "description",
+                LocalDate.of(2000, 7, 4), 100L, new Mpa(1, "G"), List.of()));
+
+        assertThat(filmService.getFilmBySearch("терминтор", "title")).extracting(Film::getId)
+                .doesNotContain(film.getId());
+        assertThat(filmService.getFilmByFuzzySearch("терминтор", "title")).extracting(Film::getId)
+                .contains(film.getId());
+        assertThat(filmService.getFilmByFuzzySearch("Tepминатоp", "title")).extracting(Film::getId)
+                .contains(film.getId());
+    }
+
+    @Test
+    void autocompleteOrdersByLikes() {
+        User user = userService.createUser(new User("auto@mail.ru", "auto", "auto",
+                LocalDate.of(1990, 1, 1)));
+        createdUsers.add(user.getId());
+        Film quiet = filmService.createFilm(new Film("Автокомплит тихий", "description",
+                LocalDate.of(2000, 7, 4), 100L, new Mpa(1, "G"), List.of()));
+        Film loud = filmService.createFilm(new Film("Автокомплит громкий", "description",
+                LocalDate.of(2000, 7, 4), 100L, new Mpa(1, "G"), List.of()));
+        filmService.addLike(loud.getId(), user.getId());
+
+        List<Completion> completions = filmService.autocomplete("автоКОМ", 10);
+        assertThat(completions).extracting(Completion::getId).containsExactly(loud.getId(), quiet.getId());
+        assertThat(completions.get(0).getName()).isEqualTo("Автокомплит громкий");
+        assertThat(filmService.autocomplete("автоком", 1)).hasSize(1);
+    }
+
     @Test
     void getFilmsByYearWhereIdIsUnknown() {
         Throwable thrown = assertThrows(NotFoundException.class, () -> {
@@ -0,0 +1,40 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.service.recommendation.JaccardIndex;
+import ru.yandex.practicum.filmorate.storage.film.LikeMatrix;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JaccardIndexTest {
+
+    @Test
+    public void jaccardIndexRanksBySimilarity() {
+        LikeMatrix.Builder builder = new LikeMatrix.Builder();
+        builder.add(1, 1);
+        builder.add(1, 2);
+        builder.add(2, 1);
+        builder.add(2, 2);
+        builder.add(2, 3);
+        builder.add(3, 2);
+        builder.add(3, 4);
+        builder.add(4, 5);
+        JaccardIndex index = JaccardIndex.fromLikes(builder.build());
+
+        assertEquals(2.0 / 3, index.similarity(1, 2), 1e-9);
+        assertEquals(0, index.similarity(1, 5));
+        assertEquals(List.of(3, 4), index.recommend(1));
+        assertTrue(index.recommend(4).isEmpty());
+        assertTrue(index.recommend(99).isEmpty());
+
+        index.unlike(2, 3);
+        assertEquals(List.of(4), index.recommend(1));
+        index.like(5, 1);
+        index.like(5, 2);
+        index.like(5, 6);
+        assertEquals(List.of(6, 4), index.recommend(1));
+    }
+}
@@ -0,0 +1,95 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import ru.yandex.practicum.filmorate.service.recommendation.MinHashIndex;
+import ru.yandex.practicum.filmorate.service.recommendation.MinHashRecommender;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.LikeMatrix;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MinHashIndexTest {
+
+    @Test
+    public void minHashIndexFindsSimilarFilms() {
+        LikeMatrix.Builder builder = new LikeMatrix.Builder();
+        builder.add(1, 1);
+        builder.add(1, 2);
+        builder.add(2, 1);
+        builder.add(2, 2);
+        builder.add(2, 3);
+        builder.add(3, 4);
+        MinHashIndex index = MinHashIndex.fromLikes(builder.build(), 16, 1);
+
+        assertEquals(1.0, index.estimateSimilarity(1, 2));
+        assertEquals(0, index.estimateSimilarity(1, 4));
+        assertEquals(List.of(3), index.recommend(1));
+        assertTrue(index.recommend(3).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> MinHashIndex.fromLikes(LikeMatrix.EMPTY, 0, 1));
+    }
+
+    @Test
+    public void minHashIndexIncrementalUpdatesMatchFullBuild() {
+        LikeMatrix.Builder builder = new LikeMatrix.Builder();
+        builder.add(1, 1);
+        builder.add(1, 2);
+        builder.add(2, 2);
+        builder.add(2, 3);
+        MinHashIndex index = MinHashIndex.fromLikes(builder.build(), 8, 2);
+        index.like(3, 1);
+        index.like(3, 3);
+        index.like(3, 4);
+        index.unlike(2, 2);
+        index.unlike(1, 1);
+        index.like(1, 1);
+
+        LikeMatrix.Builder expectedBuilder = new LikeMatrix.Builder();
+        expectedBuilder.add(1, 1);
+        expectedBuilder.add(1, 2);
+        expectedBuilder.add(2, 3);
+        expectedBuilder.add(3, 1);
+        expectedBuilder.add(3, 3);
+        expectedBuilder.add(3, 4);
+        MinHashIndex expected = MinHashIndex.fromLikes(expectedBuilder.build(), 8, 2);
+
+        for (int film = 1; film <= 4; film++) {
+            for (int other = 1; other <= 4; other++) {
+                assertEquals(expected.estimateSimilarity(film, other), index.estimateSimilarity(film, other));
+            }
+        }
+        for (int user = 1; user <= 3; user++) {
+            assertEquals(expected.recommend(user), index.recommend(user));
+        }
+    }
+
+    @Test
+    public void minHashRecommenderRetriesAfterFailedBuild() {
+        LikeMatrix.Builder builder = new LikeMatrix.Builder();
+        builder.add(1, 1);
+        builder.add(2, 1);
+        builder.add(2, 3);
+        FilmStorage filmStorage = mock(FilmStorage.class);
+        when(filmStorage.loadLikeMatrix())
+                .thenThrow(new DataAccessResourceFailureException("db down"))
+                .thenReturn(builder.build());
+        MinHashRecommender recommender = new MinHashRecommender(filmStorage, 16, 1);
+        try {
+            assertThrows(DataAccessResourceFailureException.class, () -> recommender.recommend(1));
+            recommender.like(1, 2);
+
+            assertEquals(List.of(3), recommender.recommend(1));
+            verify(filmStorage, times(2)).loadLikeMatrix();
+        } finally {
+            recommender.shutdown();
+        }
+    }
+}
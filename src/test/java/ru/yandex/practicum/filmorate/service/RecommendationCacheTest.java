@@ -0,0 +1,160 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.service.recommendation.RecommendationCache;
+import ru.yandex.practicum.filmorate.service.recommendation.Recommender;
+import ru.yandex.practicum.filmorate.storage.recommendation.RecommendationStorage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class RecommendationCacheTest {
+
+    @Test
+    public void getServesCachedRecommendations() {
+        CountingRecommender recommender = new CountingRecommender(userId -> List.of(1, 2, 3));
+        RecommendationCache cache = new RecommendationCache(recommender, new MapStorage(), 100, 2, false);
+
+        assertEquals(List.of(1, 2), cache.get(1));
+        assertEquals(List.of(1, 2), cache.get(1));
+        assertEquals(1, recommender.calls.get());
+    }
+
+    @Test
+    public void invalidateRecomputesRecommendations() {
+        CountingRecommender recommender = new CountingRecommender(userId -> List.of(1));
+        RecommendationCache cache = new RecommendationCache(recommender, new MapStorage(), 100, 10, false);
+
+        cache.get(1);
+        cache.invalidate(1);
+        cache.get(1);
+        cache.invalidateAll();
+        cache.get(1);
+        assertEquals(3, recommender.calls.get());
+    }
+
+    @Test
+    public void getServesPersistedRecommendations() {
+        CountingRecommender recommender = new CountingRecommender(userId -> List.of(9));
+        MapStorage storage = new MapStorage();
+        storage.save(1, List.of(4, 5));
+        RecommendationCache cache = new RecommendationCache(recommender, storage, 100, 10, true);
+
+        assertEquals(List.of(4, 5), cache.get(1));
+        assertEquals(0, recommender.calls.get());
+
+        assertEquals(List.of(9), cache.get(2));
+        assertEquals(Optional.of(List.of(9)), storage.getByUserId(2));
+
+        cache.invalidate(1);
+        assertFalse(storage.rows.containsKey(1));
+        assertEquals(List.of(9), cache.get(1));
+    }
+
+    @Test
+    public void getServesPersistedEmptyRecommendations() {
+        CountingRecommender recommender = new CountingRecommender(userId -> List.of(9));
+        MapStorage storage = new MapStorage();
+        storage.save(1, List.of());
+        RecommendationCache cache = new RecommendationCache(recommender, storage, 100, 10, true);
+
+        assertEquals(List.of(), cache.get(1));
+        assertEquals(0, recommender.calls.get());
+    }
+
+    @Test
+    public void refreshRecomputesOnlyInvalidatedUsers() {
+        List<Integer> requested = new ArrayList<>();
+        CountingRecommender recommender = new CountingRecommender(userId -> {
+            requested.add(userId);
+            return List.of(userId);
+        });
+        RecommendationCache cache = new RecommendationCache(recommender, new MapStorage(), 100, 10, false);
+        cache.get(1);
+        cache.get(2);
+        cache.get(3);
+        requested.clear();
+
+        cache.invalidate(2);
+        cache.evict(3);
+        cache.refreshInvalidated();
+        assertEquals(List.of(2), requested);
+
+        assertEquals(List.of(2), cache.get(2));
+        cache.refreshInvalidated();
+        assertEquals(List.of(2), requested);
+    }
+
+    @Test
+    public void invalidateDuringComputeIsNotOverwritten() {
+        MapStorage storage = new MapStorage();
+        RecommendationCache[] cache = new RecommendationCache[1];
+        AtomicInteger calls = new AtomicInteger();
+        CountingRecommender recommender = new CountingRecommender(userId -> {
+            if (calls.incrementAndGet() == 1) {
+                cache[0].invalidate(userId);
+                return List.of(1);
+            }
+            return List.of(2);
+        });
+        cache[0] = new RecommendationCache(recommender, storage, 100, 10, true);
+
+        assertEquals(List.of(1), cache[0].get(1));
+        assertFalse(storage.rows.containsKey(1));
+        assertEquals(List.of(2), cache[0].get(1));
+    }
+
+    private static class CountingRecommender implements Recommender {
+        private final IntFunction<List<Integer>> recommendations;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        CountingRecommender(IntFunction<List<Integer>> recommendations) {
+            this.recommendations = recommendations;
+        }
+
+        @Override
+        public List<Integer> recommend(int userId) {
+            calls.incrementAndGet();
+            return recommendations.apply(userId);
+        }
+
+        @Override
+        public void like(int userId, int filmId) {
+        }
+
+        @Override
+        public void unlike(int userId, int filmId) {
+        }
+
+        @Override
+        public void markStale() {
+        }
+    }
+
+    private static class MapStorage implements RecommendationStorage {
+        private final Map<Integer, List<Integer>> rows = new HashMap<>();
+
+        @Override
+        public Optional<List<Integer>> getByUserId(int userId) {
+            return Optional.ofNullable(rows.get(userId));
+        }
+
+        @Override
+        public void save(int userId, List<Integer> filmIds) {
+            rows.put(userId, filmIds);
+        }
+
+        @Override
+        public void remove(int userId) {
+            rows.remove(userId);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.recommendation.RecommendationCache;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+class RecommendationInvalidationTest {
+    @Autowired
+    private FilmService filmService;
+    @Autowired
+    private UserService userService;
+    @SpyBean
+    private RecommendationCache recommendationCache;
+
+    @Test
+    void likeUnlikeAndRemoveUserInvalidateRecommendations() {
+        Film film = filmService.createFilm(new Film("name", "description",
+                LocalDate.of(2000, 7, 4), 100L, new Mpa(1, "G"), List.of()));
+        User user = userService.createUser(new User("gmail@mail.ru", "log",
+                "Nike", LocalDate.of(1999, 7, 21)));
+        userService.getRecommendations(user.getId());
+
+        filmService.addLike(film.getId(), user.getId());
+        verify(recommendationCache).invalidate(user.getId());
+
+        clearInvocations(recommendationCache);
+        filmService.removeLike(film.getId(), user.getId());
+        verify(recommendationCache).invalidate(user.getId());
+
+        clearInvocations(recommendationCache);
+        userService.removeUser(user.getId());
+        verify(recommendationCache).evict(user.getId());
+    }
+}
@@ -1,99 +1,108 @@
 package ru.yandex.practicum.filmorate.service;
 
 import org.junit.jupiter.api.Test;
-import ru.yandex.practicum.filmorate.model.Film;
-import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.recommendation.SlopeOneDelta;
+import ru.yandex.practicum.filmorate.service.recommendation.SlopeOneModel;
+import ru.yandex.practicum.filmorate.storage.film.LikeMatrix;
 
-import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class SlopeOneTest {
 
 
     @Test
     public void slopeOneTest() {
-        Film film1 = Film.builder()
-                .id(1)
-                .name("Name1")
-                .description("description")
-                .releaseDate(LocalDate.of(2002, 12, 12))
-                .duration((long) 200)
-                .build();
-
-        User user1 = User.builder()
-                .id(1)
-                .name("name1")
-                .email("mail@mail.ru")
-                .birthday(LocalDate.of(2002, 12, 12))
-                .login("login1")
-                .build();
-
-        Film film2 = Film.builder()
-                .id(2)
-                .name("Name2")
-                .description("description")
-                .releaseDate(LocalDate.of(2002, 12, 12))
-                .duration((long) 200)
-                .build();
-
-        User user2 = User.builder()
-                .id(2)
-                .name("name2")
-                .email("mail@mail.ru")
-                .birthday(LocalDate.of(2002, 12, 12))
-                .login("login2")
-                .build();
-
-        Film film3 = Film.builder()
-                .id(3)
-                .name("Name3")
-                .description("description")
-                .releaseDate(LocalDate.of(2002, 12, 12))
-                .duration((long) 200)
-                .build();
-
-        User user3 = User.builder()
-                .id(3)
-                .name("name3")
-                .email("mail@mail.ru")
-                .birthday(LocalDate.of(2002, 12, 12))
-                .login("login3")
-                .build();
-        Map<User, HashMap<Film, Double>> inputData = new HashMap<>();
+        Map<Integer, Map<Integer, Double>> inputData = new HashMap<>();
         //user1
-        HashMap<Film, Double> data11 = new HashMap<>();
-        data11.put(film1, Double.valueOf(5.0));
-        data11.put(film2, Double.valueOf(3.0));
-        data11.put(film3, Double.valueOf(2.0));
-
-        inputData.put(user1, data11);
+        inputData.put(1, Map.of(1, 5.0, 2, 3.0, 3, 2.0));
         //user2
-        HashMap<Film, Double> data23 = new HashMap<>();
-
-        data23.put(film1, Double.valueOf(3.0));
-        data23.put(film2, Double.valueOf(4.0));
-
-        inputData.put(user2, data23);
-
+        inputData.put(2, Map.of(1, 3.0, 2, 4.0));
         //user3
+        inputData.put(3, Map.of(2, 2.0, 3, 5.0));
 
-        HashMap<Film, Double> data32 = new HashMap<>();
-        data32.put(film2, Double.valueOf(2.0));
-        data32.put(film3, Double.valueOf(5.0));
+        SlopeOneModel model = SlopeOneModel.build(inputData);
+        assertEquals(13.0 / 3, model.predict(3).get(1), 1e-9);
+        assertEquals(List.of(1), model.recommend(3));
+    }
 
-        inputData.put(user3, data32);
-        List<Film> films = new ArrayList<>();
-        films.add(film1);
-        films.add(film2);
-        films.add(film3);
-        inputData = (SlopeOne.slopeOne(inputData, films));
-        assertEquals(inputData.get(user3).get(film1), 4.375);
+    @Test
+    public void slopeOneModelIsNotAffectedByPreviousBuilds() {
+        Map<Integer, Map<Integer, Double>> inputData = new HashMap<>();
+        inputData.put(1, Map.of(1, 1.0, 2, 1.0));
+        inputData.put(2, Map.of(1, 1.0));
+        SlopeOneModel.build(Map.of(3, Map.of(2, 5.0, 3, 1.0)));
+
+        SlopeOneModel model = SlopeOneModel.build(inputData);
+        assertEquals(Map.of(2, 1.0), model.predict(2));
+        assertTrue(model.recommend(1).isEmpty());
     }
 
+    @Test
+    public void slopeOneParallelBuildMatchesSequential() {
+        Random random = new Random(7);
+        LikeMatrix.Builder builder = new LikeMatrix.Builder();
+        for (int user = 1; user <= 300; user++) {
+            TreeSet<Integer> films = new TreeSet<>();
+            while (films.size() < 8) {
+                films.add(1 + random.nextInt(100));
+            }
+            for (int film : films) {
+                builder.add(user, film);
+            }
+        }
+        LikeMatrix likes = builder.build();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            SlopeOneModel sequential = SlopeOneModel.fromLikes(likes);
+            SlopeOneModel parallel = SlopeOneModel.fromLikes(likes, pool);
+            assertEquals(sequential.getDeviationCount(), parallel.getDeviationCount());
+            for (int user = 1; user <= 300; user++) {
+                assertEquals(sequential.predict(user), parallel.predict(user));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
 
-}
\ No newline at end of file
+    @Test
+    public void slopeOneDeltaMatchesFullRebuild() {
+        Map<Integer, Map<Integer, Double>> inputData = new HashMap<>();
+        inputData.put(1, Map.of(1, 5.0, 2, 3.0, 3, 2.0));
+        inputData.put(2, Map.of(1, 3.0, 2, 4.0));
+        inputData.put(3, Map.of(2, 2.0, 3, 5.0));
+        SlopeOneDelta delta = new SlopeOneDelta(SlopeOneModel.build(inputData));
+
+        assertTrue(delta.rate(2, 4, 1.0f));
+        assertTrue(delta.rate(4, 1, 2.0f));
+        assertTrue(delta.rate(4, 4, 4.0f));
+        assertTrue(delta.unrate(1, 3));
+        assertFalse(delta.unrate(1, 3));
+        assertFalse(delta.rate(3, 2, 1.0f));
+
+        Map<Integer, Map<Integer, Double>> expectedData = new HashMap<>();
+        expectedData.put(1, Map.of(1, 5.0, 2, 3.0));
+        expectedData.put(2, Map.of(1, 3.0, 2, 4.0, 4, 1.0));
+        expectedData.put(3, Map.of(2, 2.0, 3, 5.0));
+        expectedData.put(4, Map.of(1, 2.0, 4, 4.0));
+        SlopeOneModel expected = SlopeOneModel.build(expectedData);
+
+        assertEquals(expected.getRatingCount(), delta.getLikeCount());
+        for (int user = 1; user <= 4; user++) {
+            Map<Integer, Double> predictions = delta.predict(user);
+            assertEquals(expected.predict(user).keySet(), predictions.keySet());
+            for (Map.Entry<Integer, Double> prediction : expected.predict(user).entrySet()) {
+                assertEquals(prediction.getValue(), predictions.get(prediction.getKey()), 1e-5);
+            }
+            assertEquals(expected.recommend(user), delta.recommend(user));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.storage.film.FilmCache;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilmCacheTest {
+
+    @Test
+    public void getLoadsOnceAndHandsOutCopies() {
+        FilmCache cache = new FilmCache(100);
+        AtomicInteger loads = new AtomicInteger();
+        Film stored = new Film(1, "film", "desc", LocalDate.of(2000, 1, 1), 100L, new Mpa(1, "G"));
+        stored.setGenres(new ArrayList<>(List.of(new Genre(1, "Комедия"))));
+
+        Film first = cache.get(1, id -> {
+            loads.incrementAndGet();
+            return stored;
+        }).orElseThrow();
+        first.setName("changed");
+        first.getGenres().clear();
+        Film second = cache.get(1, id -> {
+            loads.incrementAndGet();
+            return stored;
+        }).orElseThrow();
+
+        assertEquals(1, loads.get());
+        assertNotSame(first, second);
+        assertEquals("film", second.getName());
+        assertEquals(1, second.getGenres().size());
+    }
+
+    @Test
+    public void getDoesNotCacheMissingFilmAndReloadsAfterInvalidate() {
+        FilmCache cache = new FilmCache(100);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertTrue(cache.get(1, id -> {
+            loads.incrementAndGet();
+            return null;
+        }).isEmpty());
+        Film film = new Film(1, "film", "desc", LocalDate.of(2000, 1, 1), 100L, new Mpa(1, "G"));
+        cache.get(1, id -> {
+            loads.incrementAndGet();
+            return film;
+        });
+        cache.invalidate(1);
+        cache.get(1, id -> {
+            loads.incrementAndGet();
+            return film;
+        });
+
+        assertEquals(3, loads.get());
+    }
+}
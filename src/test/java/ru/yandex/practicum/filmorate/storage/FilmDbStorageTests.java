@@ -1,6 +1,7 @@
 package ru.yandex.practicum.filmorate.storage;
 
 import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,10 +9,16 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.jdbc.core.JdbcTemplate;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
 import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.User;
 import ru.yandex.practicum.filmorate.storage.film.FilmDbStorage;
+import ru.yandex.practicum.filmorate.storage.film.FilmLikesReconciler;
+import ru.yandex.practicum.filmorate.storage.film.LikeMatrix;
+import ru.yandex.practicum.filmorate.storage.user.UserDbStorage;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,12 +30,22 @@ import static org.assertj.core.api.Assertions.assertThat;
 class FilmDbStorageTests {
     private final JdbcTemplate jdbcTemplate;
     private final FilmDbStorage filmStorage;
+    private final UserDbStorage userStorage;
+    private final FilmLikesReconciler likesReconciler;
+    private final List<Integer> createdUsers = new ArrayList<>();
 
     @BeforeEach
     void cleanDb() {
         jdbcTemplate.update("DELETE FROM film_likes");
         jdbcTemplate.update("DELETE FROM film_genres");
         jdbcTemplate.update("DELETE FROM films");
+        filmStorage.loadIds();
+    }
+
+    @AfterEach
+    void removeCreatedUsers() {
+        createdUsers.forEach(userStorage::remove);
+        createdUsers.clear();
     }
 
     @Test
@@ -52,6 +69,42 @@ class FilmDbStorageTests {
         assertThat(films.size()).isEqualTo(0);
     }
 
+    @Test
+    public void testGetPage() {
+        Film first = filmStorage.add(new Film("first", "desc",
+                LocalDate.of(2026, 7, 21), 100L, new Mpa(1, "G"), List.of()));
+        Film second = filmStorage.add(new Film("second", "desc",
+                LocalDate.of(2026, 7, 21), 100L, new Mpa(1, "G"), List.of()));
+        Film third = filmStorage.add(new Film("third", "desc",
+                LocalDate.of(2026, 7, 21), 100L, new Mpa(1, "G"), List.of()));
+
+        List<Film> firstPage = filmStorage.getPage(null, 2);
+        List<Film> secondPage = filmStorage.getPage(second.getId(), 2);
+
+        assertThat(firstPage).extracting(Film::getId).containsExactly(first.getId(), second.getId());
+        assertThat(secondPage).extracting(Film::getId).containsExactly(third.getId());
+    }
+
+    @Test
+    public void testPopularFilmsOrderedByLikes() {
+        Film film = filmStorage.add(new Film("gg", "desc",
+                LocalDate.of(2026, 7, 21), 100L, new Mpa(1, "G"), List.of()));
+        Film liked = filmStorage.add(new Film("liked", "desc",
+                LocalDate.of(2026, 7, 21), 100L, new Mpa(1, "G"), List.of()));
+        User user = userStorage.add(new User("mail@mail.ru", "login", "name", LocalDate.of(2000, 1, 1)));
+        createdUsers.add(user.getId());
+        filmStorage.addLike(liked.getId(), user.getId());
+        filmStorage.addLike(liked.getId(), user.getId());
+
+        assertThat(filmStorage.getPopularFilmsOnGenreAndYear(10, null, null))
+                .extracting(Film::getId).containsExactly(liked.getId(), film.getId());
+        assertThat(likesReconciler.reconcile()).isEqualTo(0);
+
+        filmStorage.removeLike(liked.getId(), user.getId());
+        assertThat(jdbcTemplate.queryForObject("select likes_count from films where id = ?", Integer.class, liked.getId()))
+                .isEqualTo(0);
+    }
+
     @Test
     public void testCreateFilm() {
         Film film = filmStorage.add(new Film("gg", "desc",
@@ -82,6 +135,76 @@ class FilmDbStorageTests {
                 );
     }
 
+    @Test
+    public void testGetByIdAfterUpdate() {
+        Film film = filmStorage.add(new Film("com", "description",
+                LocalDate.of(2036, 7, 21), 120L, new Mpa(2, "PG"), List.of()));
+        filmStorage.getById(film.getId());
+        film.setName("updated");
+        filmStorage.update(film);
+
+        assertThat(filmStorage.getById(film.getId()))
+                .hasValueSatisfying(cached -> assertThat(cached).hasFieldOrPropertyWithValue("name", "updated"));
+    }
+
+    @Test
+    public void testUpdateFilmGenres() {
+        Film film = filmStorage.add(new Film("com", "description", LocalDate.of(2036, 7, 21), 120L,
+                new Mpa(2, "PG"), List.of(new Genre(1, null), new Genre(2, null))));
+        film.setGenres(List.of(new Genre(2, null), new Genre(3, null)));
+        filmStorage.update(film);
+
+        assertThat(filmStorage.getById(film.getId()))
+                .hasValueSatisfying(updated -> assertThat(updated.getGenres())
+                        .extracting(Genre::getId).containsExactly(2, 3));
+    }
+
+    @Test
+    public void testExists() {
+        Film film = filmStorage.add(new Film("gg", "desc",
+                LocalDate.of(2026, 7, 21), 100L, new Mpa(1, "G"), List.of()));
+
+        assertThat(filmStorage.exists(film.getId())).isTrue();
+        assertThat(filmStorage.existsAll(List.of(film.getId(), -1))).isFalse();
+        filmStorage.remove(film.getId());
+        assertThat(filmStorage.exists(film.getId())).isFalse();
+    }
+
+    @Test
+    public void testSearchFilmByTitleUsesNormalizedName() {
+        Film film = filmStorage.add(new Film("Ёжик  в ТУМАНЕ", "desc",
+                LocalDate.of(2026, 7, 21), 100L, new Mpa(1, "G"), List.of()));
+        film.setName("Ёжик в тумане 100%");
+        filmStorage.update(film);
+
+        assertThat(filmStorage.searchFilmByTitle("ЕЖИК В"))
+                .extracting(Film::getId).containsExactly(film.getId());
+        assertThat(filmStorage.searchFilmByTitle("ежик в тумане 100%")).hasSize(1);
+        assertThat(filmStorage.searchFilmByTitle("тумане")).isEmpty();
+        assertThat(filmStorage.searchFilmByTitle("_")).isEmpty();
+    }
+
+    @Test
+    public void testLoadLikeMatrix() {
+        Film first = filmStorage.add(new Film("first", "desc",
+                LocalDate.of(2026, 7, 21), 100L, new Mpa(1, "G"), List.of()));
+        Film second = filmStorage.add(new Film("second", "desc",
+                LocalDate.of(2026, 7, 21), 100L, new Mpa(1, "G"), List.of()));
+        User user = userStorage.add(new User("matrix@mail.ru", "matrix", "matrix", LocalDate.of(2000, 1, 1)));
+        User other = userStorage.add(new User("matrix2@mail.ru", "matrix2", "matrix2", LocalDate.of(2000, 1, 1)));
+        createdUsers.add(user.getId());
+        createdUsers.add(other.getId());
+        filmStorage.addLike(second.getId(), user.getId());
+        filmStorage.addLike(first.getId(), user.getId());
+        filmStorage.addLike(second.getId(), other.getId());
+
+        LikeMatrix likes = filmStorage.loadLikeMatrix();
+        assertThat(likes.getUserIds()).containsExactly(user.getId(), other.getId());
+        assertThat(likes.getFilmIds()).containsExactly(first.getId(), second.getId());
+        assertThat(likes.getUserOffsets()).containsExactly(0, 2, 3);
+        assertThat(likes.getFilmIndexes()).containsExactly(0, 1, 1);
+    }
+
     @Test
     public void testRemoveFilm() {
         Film film = filmStorage.add(new Film("gg", "desc",
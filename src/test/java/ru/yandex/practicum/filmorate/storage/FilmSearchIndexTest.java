@@ -0,0 +1,82 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Completion;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.storage.search.FilmSearchIndex;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FilmSearchIndexTest {
+
+    @Test
+    public void completeKeepsOnlyTopCompletionsForWidePrefix() {
+        FilmSearchIndex index = new FilmSearchIndex(null, 50, 100, 10, 60_000);
+        for (int id = 1; id <= 30; id++) {
+            index.putFilm(film(id, "Фильм " + id));
+        }
+        AtomicInteger lookups = new AtomicInteger();
+        IntUnaryOperator likes = filmId -> {
+            lookups.incrementAndGet();
+            return filmId;
+        };
+
+        assertEquals(List.of(30, 29, 28, 27, 26), ids(index.complete("фил", 5, likes)));
+        assertEquals(30, lookups.get());
+        assertEquals(10, index.complete("фил", 50, likes).size());
+        assertEquals(30, lookups.get());
+    }
+
+    @Test
+    public void completeSeesTitleChanges() {
+        FilmSearchIndex index = new FilmSearchIndex(null, 50, 100, 10, 60_000);
+        for (int id = 1; id <= 30; id++) {
+            index.putFilm(film(id, "Фильм " + id));
+        }
+        IntUnaryOperator likes = filmId -> filmId;
+        assertEquals(List.of(30), ids(index.complete("фил", 1, likes)));
+
+        index.putFilm(film(99, "Фильм 99"));
+        assertEquals(List.of(99), ids(index.complete("фил", 1, likes)));
+
+        index.removeFilm(99);
+        index.removeFilm(30);
+        assertEquals(List.of(29), ids(index.complete("фил", 1, likes)));
+    }
+
+    @Test
+    public void unrelatedWritesKeepCachedCompletions() {
+        FilmSearchIndex index = new FilmSearchIndex(null, 50, 100, 10, 60_000);
+        index.putFilms(List.of(film(1, "Фильм 1"), film(2, "Фильм 2")));
+        AtomicInteger lookups = new AtomicInteger();
+        IntUnaryOperator likes = filmId -> {
+            lookups.incrementAndGet();
+            return filmId;
+        };
+        assertEquals(List.of(2, 1), ids(index.complete("фил", 5, likes)));
+
+        index.putFilms(List.of(film(3, "Другое кино"), film(4, "Ещё кино")));
+        assertEquals(List.of(2, 1), ids(index.complete("фил", 5, likes)));
+        assertEquals(2, lookups.get());
+
+        index.putFilm(film(2, "Другое название"));
+        assertEquals(List.of(1), ids(index.complete("фил", 5, likes)));
+    }
+
+    private static Film film(int id, String name) {
+        return new Film(id, name, "desc", LocalDate.of(2000, 1, 1), 100L, new Mpa(1, "G"));
+    }
+
+    private static List<Integer> ids(List<Completion> completions) {
+        return completions.stream()
+                .map(Completion::getId)
+                .collect(Collectors.toList());
+    }
+}
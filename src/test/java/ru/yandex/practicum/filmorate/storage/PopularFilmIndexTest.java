@@ -0,0 +1,60 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.storage.film.PopularFilmIndex;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PopularFilmIndexTest {
+
+    @Test
+    public void getTopNeverLosesFilmsWhileLikesChange() throws InterruptedException {
+        PopularFilmIndex index = new PopularFilmIndex(null);
+        for (int id = 1; id <= 50; id++) {
+            Film film = new Film(id, "film" + id, "desc", LocalDate.of(2000, 1, 1), 100L, new Mpa(1, "G"));
+            film.setGenres(List.of(new Genre(1, "Комедия")));
+            index.putFilm(film);
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            while (running.get()) {
+                for (int id = 1; id <= 50; id++) {
+                    index.changeLikes(id, 1);
+                    index.changeLikes(id, -1);
+                }
+            }
+        });
+        writer.start();
+        try {
+            for (int i = 0; i < 20000; i++) {
+                List<Integer> top = index.getTop(10, 1, 2000);
+                assertEquals(10, top.size());
+                assertEquals(10, new HashSet<>(top).size());
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+
+    @Test
+    public void changeLikesReordersFilms() {
+        PopularFilmIndex index = new PopularFilmIndex(null);
+        for (int id = 1; id <= 3; id++) {
+            index.putFilm(new Film(id, "film" + id, "desc", LocalDate.of(2000, 1, 1), 100L, new Mpa(1, "G")));
+        }
+        index.changeLikes(3, 2);
+        index.changeLikes(2, 1);
+
+        assertEquals(List.of(3, 2, 1), index.getTop(10, null, null));
+        assertEquals(List.of(3), index.getTop(1, null, 2000));
+    }
+}
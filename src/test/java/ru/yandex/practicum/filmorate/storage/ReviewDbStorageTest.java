@@ -9,9 +9,10 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.jdbc.core.JdbcTemplate;
 import ru.yandex.practicum.filmorate.model.*;
-import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.FilmDbStorage;
 import ru.yandex.practicum.filmorate.storage.review.ReviewStorage;
-import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+import ru.yandex.practicum.filmorate.storage.search.ReviewSearchIndex;
+import ru.yandex.practicum.filmorate.storage.user.UserDbStorage;
 import ru.yandex.practicum.filmorate.throwable.NotFoundException;
 import ru.yandex.practicum.filmorate.throwable.ValidationException;
 
@@ -29,8 +30,9 @@ public class ReviewDbStorageTest {
 
     private final JdbcTemplate jdbcTemplate;
     private final ReviewStorage reviewStorage;
-    private final FilmStorage filmStorage;
-    private final UserStorage userStorage;
+    private final FilmDbStorage filmStorage;
+    private final UserDbStorage userStorage;
+    private final ReviewSearchIndex reviewSearchIndex;
 
     @BeforeEach
     void cleanDb() {
@@ -38,6 +40,8 @@ public class ReviewDbStorageTest {
         jdbcTemplate.update("DELETE FROM reviews");
         jdbcTemplate.update("DELETE FROM films");
         jdbcTemplate.update("DELETE FROM users");
+        filmStorage.loadIds();
+        userStorage.loadIds();
     }
 
     @Test
@@ -325,4 +329,22 @@ public class ReviewDbStorageTest {
         Assertions.assertEquals("Удаление лайка/дизлайка невозможно", wrongLike.getMessage());
     }
 
+    @Test
+    void searchReviews_orderedByUseful() {
+        Film film = filmStorage.add(new Film("gg", "desc", LocalDate.of(2026, 7, 21), 100L, new Mpa(1, "G"), List.of(new Genre(1, "Комедия"))));
+        User user1 = userStorage.add(new User("gmail@mail.ru", "log", "Nike", LocalDate.of(1999, 7, 21)));
+        User user2 = userStorage.add(new User("mail@mail.ru", "logg", "Nice", LocalDate.of(1998, 5, 10)));
+        Review first = reviewStorage.addReview(new Review("Отличный фильм!", true, user1.getId(), film.getId()));
+        Review second = reviewStorage.addReview(new Review("отличный сюжет, слабый финал", true, user2.getId(), film.getId()));
+        reviewStorage.likeReview(second.getReviewId(), user1.getId());
+
+        assertThat(reviewSearchIndex.search("ОТЛИЧНЫЙ", film.getId()))
+                .containsExactly(second.getReviewId(), first.getReviewId());
+        assertThat(reviewSearchIndex.search("отличный фильм", 0)).containsExactly(first.getReviewId());
+        assertThat(reviewSearchIndex.search("отличный", film.getId() + 1)).isEmpty();
+
+        reviewStorage.removeReview(first.getReviewId());
+        assertThat(reviewStorage.getReviewsByIds(reviewSearchIndex.search("отличный", 0)))
+                .extracting(Review::getReviewId).containsExactly(second.getReviewId());
+    }
 }
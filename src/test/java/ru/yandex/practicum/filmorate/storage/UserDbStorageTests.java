@@ -27,6 +27,7 @@ class UserDbStorageTests {
     void cleanDb() {
         jdbcTemplate.update("DELETE FROM friends");
         jdbcTemplate.update("DELETE FROM users");
+        userStorage.loadIds();
     }
 
     @Test
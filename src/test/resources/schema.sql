@@ -1,3 +1,11 @@
+DROP TABLE IF EXISTS user_recommendation_sets CASCADE;
+DROP TABLE IF EXISTS user_recommendations CASCADE;
+DROP TABLE IF EXISTS user_feedback CASCADE;
+DROP TABLE IF EXISTS feeds CASCADE;
+DROP TABLE IF EXISTS review_likes CASCADE;
+DROP TABLE IF EXISTS reviews CASCADE;
+DROP TABLE IF EXISTS film_directors CASCADE;
+DROP TABLE IF EXISTS directors CASCADE;
 DROP TABLE IF EXISTS friends CASCADE;
 DROP TABLE IF EXISTS film_likes CASCADE;
 DROP TABLE IF EXISTS users CASCADE;
@@ -20,8 +28,12 @@ CREATE TABLE IF NOT EXISTS films (
         description varchar NOT NULL,
         release_date date NOT NULL,
         duration bigint,
-        mpa_id integer REFERENCES mpa (id) ON DELETE CASCADE
+        mpa_id integer REFERENCES mpa (id) ON DELETE CASCADE,
+        likes_count integer DEFAULT 0 NOT NULL,
+        search_name varchar
 );
+CREATE INDEX IF NOT EXISTS films_likes_count_idx ON films (likes_count);
+CREATE INDEX IF NOT EXISTS films_search_name_idx ON films (search_name);
 CREATE TABLE IF NOT EXISTS film_genres (
         film_id integer REFERENCES films (id) ON DELETE CASCADE,
         genre_id integer REFERENCES genres (id) ON DELETE CASCADE,
@@ -39,11 +51,61 @@ CREATE TABLE IF NOT EXISTS film_likes (
         user_id integer REFERENCES users (id) ON DELETE CASCADE,
         CONSTRAINT film_likes_PK PRIMARY KEY (film_id,user_id)
 );
+CREATE TABLE IF NOT EXISTS user_recommendations (
+        user_id integer REFERENCES users (id) ON DELETE CASCADE,
+        position integer NOT NULL,
+        film_id integer REFERENCES films (id) ON DELETE CASCADE,
+        CONSTRAINT user_recommendations_PK PRIMARY KEY (user_id,position)
+);
+CREATE TABLE IF NOT EXISTS user_recommendation_sets (
+        user_id integer PRIMARY KEY REFERENCES users (id) ON DELETE CASCADE
+);
 CREATE TABLE IF NOT EXISTS friends (
         user_id integer REFERENCES users (id),
         friend_id integer REFERENCES users (id),
         CONSTRAINT FRIENDS_PK PRIMARY KEY (USER_ID,FRIEND_ID)
 );
+CREATE TABLE IF NOT EXISTS directors (
+        id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+        name varchar NOT NULL,
+        search_name varchar
+);
+CREATE INDEX IF NOT EXISTS directors_search_name_idx ON directors (search_name);
+CREATE TABLE IF NOT EXISTS film_directors (
+        film_id integer REFERENCES films (id) ON DELETE CASCADE,
+        director_id integer REFERENCES directors (id) ON DELETE CASCADE,
+        CONSTRAINT film_directors_PK PRIMARY KEY (film_id,director_id)
+);
+CREATE TABLE IF NOT EXISTS reviews (
+        id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+        content varchar NOT NULL,
+        isPositive boolean,
+        user_id integer NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+        film_id integer NOT NULL REFERENCES films (id) ON DELETE CASCADE,
+        useful integer DEFAULT 0
+);
+CREATE TABLE IF NOT EXISTS review_likes (
+        review_id integer REFERENCES reviews (id) ON DELETE CASCADE,
+        user_id integer REFERENCES users (id) ON DELETE CASCADE,
+        isLike boolean,
+        CONSTRAINT review_likes_PK PRIMARY KEY (review_id,user_id)
+);
+CREATE TABLE IF NOT EXISTS feeds (
+        event_id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+        user_id integer REFERENCES users (id) ON DELETE CASCADE,
+        timestamp bigint,
+        event_type varchar NOT NULL,
+        operation varchar NOT NULL,
+        entity_id integer
+);
+CREATE TABLE IF NOT EXISTS user_feedback (
+        feedback_id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+        user_id integer REFERENCES users (id) ON DELETE CASCADE,
+        friend_id integer REFERENCES users (id) ON DELETE CASCADE,
+        feedback_type varchar NOT NULL,
+        entity_id integer,
+        timestamp bigint
+);
 
 INSERT INTO genres (name) VALUES ('Комедия');
 INSERT INTO genres (name) VALUES ('Драма');
@@ -57,4 +119,4 @@ INSERT INTO mpa (name) VALUES ('PG-13');
 INSERT INTO mpa (name) VALUES ('R');
 INSERT INTO mpa (name) VALUES ('NC-17');
 INSERT INTO users (id, email, login, name, birthday) VALUES (5, 'mail@mail.ru', 'login', 'name', CAST('2000-01-01' AS DATE));
-INSERT INTO films (id, name, description, release_date, duration, mpa_id) VALUES (5, 'nii', 'descriptions', CAST('1967-03-25' AS DATE), 100, 4);
\ No newline at end of file
+INSERT INTO films (id, name, description, release_date, duration, mpa_id, search_name) VALUES (5, 'nii', 'descriptions', CAST('1967-03-25' AS DATE), 100, 4, 'nii');
\ No newline at end of file